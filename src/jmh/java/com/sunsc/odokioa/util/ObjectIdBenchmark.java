@@ -0,0 +1,110 @@
+package com.sunsc.odokioa.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ObjectId生成吞吐对比：原实现(构造ObjectId、转字节数组再逐字节编码)、直接编码 nextHexString()、
+ * 预留区间 reserve(n)，分别在单线程和32线程下运行。
+ * get()现在也走直接编码，原实现的编码复制在 {@link #originalHexString(ObjectId)} 里作为基线
+ *
+ * <p>运行：./gradlew jmh
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObjectIdBenchmark {
+
+    private static final char[] HEX_CHARS = new char[]{
+            '0', '1', '2', '3', '4', '5', '6', '7',
+            '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
+    };
+
+    /**
+     * 每个线程持有自己的预留区间，模拟批量插入
+     */
+    @State(Scope.Thread)
+    public static class ReservedBlock {
+
+        private static final int BLOCK_SIZE = 1000;
+
+        ObjectId.Block block;
+
+        @Setup(Level.Iteration)
+        public void reserve() {
+            block = ObjectId.reserve(BLOCK_SIZE);
+        }
+
+        String next() {
+            if (block.remaining() == 0) {
+                block = ObjectId.reserve(BLOCK_SIZE);
+            }
+            return block.nextHexString();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String originalSingleThread() {
+        return originalHexString(new ObjectId());
+    }
+
+    @Benchmark
+    @Threads(32)
+    public String original32Threads() {
+        return originalHexString(new ObjectId());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String nextHexStringSingleThread() {
+        return ObjectId.nextHexString();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public String nextHexString32Threads() {
+        return ObjectId.nextHexString();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String reservedSingleThread(ReservedBlock reserved) {
+        return reserved.next();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public String reserved32Threads(ReservedBlock reserved) {
+        return reserved.next();
+    }
+
+    /**
+     * 改为直接编码之前的 ObjectId#toHexString
+     */
+    private static String originalHexString(ObjectId id) {
+        char[] chars = new char[24];
+        int i = 0;
+        for (byte b : id.toByteArray()) {
+            chars[i++] = HEX_CHARS[b >> 4 & 0xF];
+            chars[i++] = HEX_CHARS[b & 0xF];
+        }
+        return new String(chars);
+    }
+}
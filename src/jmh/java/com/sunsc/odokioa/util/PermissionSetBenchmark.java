@@ -0,0 +1,74 @@
+package com.sunsc.odokioa.util;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.sunsc.odokioa.enums.Permission;
+import java.util.EnumSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 权限判断耗时：编译好的位图直接判断，以及先从用户缓存取位图再判断(与 PermissionService 命中缓存时相同)
+ *
+ * <p>运行：./gradlew jmh
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PermissionSetBenchmark {
+
+    private static final int USERS = 10_000;
+
+    private final PermissionSet permissions = PermissionSet.of(EnumSet.of(Permission.USER_READ, Permission.ROLE_READ));
+
+    private final String[] userIds = new String[USERS];
+
+    private LoadingCache<String, PermissionSet> cache;
+
+    @Setup
+    public void setUp() {
+        cache = Caffeine.newBuilder().maximumSize(USERS).build(userId -> permissions);
+        for (int i = 0; i < USERS; i++) {
+            userIds[i] = ObjectId.nextHexString();
+            cache.get(userIds[i]);
+        }
+    }
+
+    @Benchmark
+    public boolean has() {
+        return permissions.has(Permission.ROLE_READ);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean cachedSingleThread() {
+        return cached();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public boolean cached32Threads() {
+        return cached();
+    }
+
+    private boolean cached() {
+        return cache.get(userIds[ThreadLocalRandom.current().nextInt(USERS)]).has(Permission.ROLE_READ);
+    }
+}
@@ -1,5 +1,7 @@
 package com.sunsc.odokioa.common;
 
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.TableField;
 import lombok.Data;
 
 /**
@@ -31,6 +33,7 @@ public class BaseEntity {
     /**
      * 创建时间
      */
+    @TableField(fill = FieldFill.INSERT)
     private Long createTime;
     /**
      * 更新人id
@@ -41,7 +44,8 @@ public class BaseEntity {
      */
     private String updaterName;
     /**
-     * 更新时间
+     * 更新时间，逻辑删除时也会更新，作为删除时间
      */
+    @TableField(fill = FieldFill.UPDATE)
     private Long updateTime;
 }
@@ -0,0 +1,80 @@
+package com.sunsc.odokioa.common;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.sunsc.odokioa.util.ObjectId;
+import java.util.Date;
+import java.util.List;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * 基础服务，提供基于主键的游标分页和按列投影查询
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+public class BaseService<M extends BaseMapper<T>, T extends BaseEntity> extends ServiceImpl<M, T> {
+
+    /**
+     * 主键列
+     */
+    protected static final String ID_COLUMN = "id";
+
+    /**
+     * 只查询指定列
+     *
+     * @param columns select列，为空时查询全部列
+     * @return 全部记录
+     */
+    public List<T> listColumns(List<String> columns) {
+        return this.list(select(columns));
+    }
+
+    /**
+     * 按主键游标查询，ObjectId主键本身按时间有序，走主键范围扫描而不是OFFSET
+     *
+     * @param after 上一页最后一条记录的id，为空时从第一条开始
+     * @param limit 最多返回条数
+     * @param columns select列，为空时查询全部列
+     * @return 主键大于after的记录，按主键升序
+     */
+    public List<T> listAfter(String after, int limit, List<String> columns) {
+        QueryWrapper<T> wrapper = select(columns);
+        wrapper.gt(StringUtils.hasText(after), ID_COLUMN, after)
+                .orderByAsc(ID_COLUMN)
+                .last("limit " + limit);
+        return this.list(wrapper);
+    }
+
+    /**
+     * 按创建时间窗口游标查询。ObjectId前4字节是创建时间的秒数，时间窗口换算成主键的 BETWEEN 范围，
+     * 与游标条件一起走同一段主键范围扫描，不需要额外的时间列索引
+     *
+     * @param from 开始时间，包含，精确到秒
+     * @param to 结束时间，不包含，精确到秒
+     * @param after 上一页最后一条记录的id，为空时从窗口起点开始
+     * @param limit 最多返回条数
+     * @param columns select列，为空时查询全部列
+     * @return 创建时间在窗口内且主键大于after的记录，按主键升序
+     */
+    public List<T> listCreatedBetween(Date from, Date to, String after, int limit, List<String> columns) {
+        QueryWrapper<T> wrapper = select(columns);
+        wrapper.between(ID_COLUMN,
+                        ObjectId.getSmallestWithDate(from).toHexString(),
+                        ObjectId.getLargestWithDate(new Date(to.getTime() - 1)).toHexString())
+                .gt(StringUtils.hasText(after), ID_COLUMN, after)
+                .orderByAsc(ID_COLUMN)
+                .last("limit " + limit);
+        return this.list(wrapper);
+    }
+
+    protected QueryWrapper<T> select(List<String> columns) {
+        QueryWrapper<T> wrapper = new QueryWrapper<>();
+        if (!CollectionUtils.isEmpty(columns)) {
+            wrapper.select(columns);
+        }
+        return wrapper;
+    }
+}
@@ -10,4 +10,24 @@ public class Constants {
 
     public static final String DEFAULT_PASSWORD = "1234567890";
 
+    /**
+     * 游标分页默认条数
+     */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    /**
+     * 游标分页最大条数
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * 单次批量创建用户的上限
+     */
+    public static final int MAX_BATCH_ADD_USERS = 1000;
+
+    /**
+     * JDBC批量插入每批条数
+     */
+    public static final int INSERT_BATCH_SIZE = 500;
+
 }
@@ -0,0 +1,14 @@
+package com.sunsc.odokioa.common;
+
+/**
+ * 当前用户没有访问权限
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+public class PermissionDeniedException extends RuntimeException {
+
+    public PermissionDeniedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.sunsc.odokioa.common;
+
+/**
+ * 服务繁忙，请求被快速拒绝，客户端可稍后重试
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,82 @@
+package com.sunsc.odokioa.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * graphql准入控制配置，query和mutation分别限流
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@ConfigurationProperties(prefix = "odoki.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    private Limits query = new Limits(50, 100, 100, 10, 1000);
+
+    private Limits mutation = new Limits(10, 20, 20, 2, 200);
+
+    /**
+     * 单次执行耗时超过长期平均值的这么多倍时视为过载，收缩并发上限
+     */
+    private double latencyTolerance = 2.0;
+
+    /**
+     * 过载时并发上限乘以这个系数
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * 等待数据库连接的线程数超过这个值时视为过载；
+     * 正常负载下也会有请求短暂等连接，为0时一个等待者就会收缩并发上限
+     */
+    private int poolPendingThreshold = 10;
+
+    /**
+     * 客户端超过这么久没有请求时丢弃它的令牌桶
+     */
+    private Duration clientIdleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * 最多同时跟踪的客户端数
+     */
+    private long maxClients = 100_000;
+
+    @Data
+    public static class Limits {
+
+        /**
+         * 每个客户端每秒补充的令牌数，0为不限
+         */
+        private double rate;
+
+        /**
+         * 每个客户端令牌桶容量，允许的突发请求数
+         */
+        private int burst;
+
+        /**
+         * 全局并发上限的初始值，之后按耗时和连接池等待自动调整
+         */
+        private int initialLimit;
+
+        private int minLimit;
+
+        private int maxLimit;
+
+        public Limits() {
+        }
+
+        public Limits(double rate, int burst, int initialLimit, int minLimit, int maxLimit) {
+            this.rate = rate;
+            this.burst = burst;
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.sunsc.odokioa.config;
+
+import java.time.Duration;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 逻辑删除数据归档配置
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@ConfigurationProperties(prefix = "odoki.archive")
+public class ArchiveProperties {
+
+    /**
+     * 是否定时归档，开启前先建好归档表
+     */
+    private boolean enabled = false;
+
+    /**
+     * 归档的表，每张表都要有对应的 表名_archive
+     */
+    private List<String> tables = List.of("user", "role", "user_role");
+
+    /**
+     * 删除超过这么久的行才归档，期间还可以恢复
+     */
+    private Duration retention = Duration.ofDays(30);
+
+    /**
+     * 两轮归档之间的间隔
+     */
+    private Duration interval = Duration.ofHours(1);
+
+    /**
+     * 每批搬运的行数，每批一个事务
+     */
+    private int batchSize = 500;
+
+    /**
+     * 两批之间至少停顿的时间，实际停顿不少于上一批的耗时，数据库变慢时归档自动放慢
+     */
+    private Duration pause = Duration.ofMillis(200);
+
+    /**
+     * 每轮最长运行时间，到时间后剩下的留给下一轮
+     */
+    private Duration maxRunTime = Duration.ofMinutes(10);
+}
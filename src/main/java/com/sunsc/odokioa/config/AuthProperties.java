@@ -0,0 +1,29 @@
+package com.sunsc.odokioa.config;
+
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 当前用户识别配置
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@ConfigurationProperties(prefix = "odoki.auth")
+public class AuthProperties {
+
+    /**
+     * 只信任这些地址发来的 X-User-Id 请求头，即完成认证的网关；IP或CIDR，如 10.0.0.0/8。
+     * 其他地址发来的请求一律视为匿名用户。
+     * 比较的是 request.getRemoteAddr()，开启 server.forward-headers-strategy 后它变成转发头里的客户端地址，不能再用来判断
+     */
+    private List<String> trustedProxies = List.of("127.0.0.1", "::1");
+
+    /**
+     * 是否拦截没有权限的请求。关闭时只按权限点计数(permissions.denied)，用于上线前核对角色和授权数据；
+     * 开启前先执行 db/permission-seed.sql 给已有用户分配角色，否则已有客户端都会被拒绝
+     */
+    private boolean enforce = false;
+}
@@ -0,0 +1,25 @@
+package com.sunsc.odokioa.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 用户、角色变更订阅配置
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@ConfigurationProperties(prefix = "odoki.change-events")
+public class ChangeEventProperties {
+
+    /**
+     * 每个订阅者最多缓冲的未送出事件，同一id的事件合并为最新一条，超出时丢弃最早的
+     */
+    private int bufferSize = 256;
+
+    /**
+     * 投递线程数
+     */
+    private int threads = 2;
+}
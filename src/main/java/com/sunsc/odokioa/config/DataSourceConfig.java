@@ -0,0 +1,94 @@
+package com.sunsc.odokioa.config;
+
+import com.sunsc.odokioa.custom.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.StringUtils;
+
+/**
+ * 读写分离：配置了 odoki.datasource.replicas 时，用路由数据源替换默认数据源，
+ * 只读的graphql查询走从库，其余走主库，见 {@link com.sunsc.odokioa.custom.DataSourceRoute}。
+ * 主库和从库的连接池都按 spring.datasource.hikari.* 配置，都注册hikaricp.*指标(按pool标签区分)，应用关闭时随路由数据源一起关闭
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+@ConditionalOnProperty(prefix = "odoki.datasource", name = "replicas[0].url")
+public class DataSourceConfig {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    @Bean(destroyMethod = "shutdown")
+    public ScheduledExecutorService replicaHealthCheckExecutor() {
+        return new ScheduledThreadPoolExecutor(1, new CustomizableThreadFactory("replica-health-"));
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource dataSource(DataSourceProperties primaryProperties,
+                                                 ReplicaDataSourceProperties properties,
+                                                 ScheduledExecutorService replicaHealthCheckExecutor,
+                                                 MeterRegistry meterRegistry, Environment environment) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = primaryProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        bindHikari(binder, primary);
+        primary.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+        primary.setMetricRegistry(meterRegistry);
+        List<DataSource> replicas = new ArrayList<>();
+        for (ReplicaDataSourceProperties.Replica replica : properties.getReplicas()) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(orDefault(replica.getUsername(), primaryProperties.determineUsername()))
+                    .password(orDefault(replica.getPassword(), primaryProperties.determinePassword()))
+                    .driverClassName(orDefault(replica.getDriverClassName(),
+                            primaryProperties.determineDriverClassName()))
+                    .build();
+            bindHikari(binder, dataSource);
+            dataSource.setPoolName(ReadWriteRoutingDataSource.REPLICA_PREFIX + replicas.size());
+            // 自动配置只给能从dataSource bean解包出来的连接池注册指标，从库要自己注册，准入控制按等待线程数判断过载
+            dataSource.setMetricRegistry(meterRegistry);
+            replicas.add(dataSource);
+        }
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replicas,
+                (int) Math.max(1, properties.getHealthCheckTimeout().toSeconds()));
+        long interval = properties.getHealthCheckInterval().toMillis();
+        replicaHealthCheckExecutor.scheduleWithFixedDelay(routing::checkReplicas, 0, interval, TimeUnit.MILLISECONDS);
+        Gauge.builder("datasource.replicas.healthy", routing, ReadWriteRoutingDataSource::healthyReplicaCount)
+                .description("replicas currently eligible for read routing")
+                .register(meterRegistry);
+        return routing;
+    }
+
+    /**
+     * 与自动配置的数据源一样应用 spring.datasource.hikari.*，从库沿用主库的连接池参数
+     */
+    private static void bindHikari(Binder binder, HikariDataSource dataSource) {
+        binder.bind(HIKARI_PREFIX, Bindable.ofInstance(dataSource));
+    }
+
+    private static String orDefault(String value, String defaultValue) {
+        return StringUtils.hasText(value) ? value : defaultValue;
+    }
+}
@@ -0,0 +1,20 @@
+package com.sunsc.odokioa.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * graphql解析结果缓存配置
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@ConfigurationProperties(prefix = "odoki.document-cache")
+public class DocumentCacheProperties {
+
+    /**
+     * 缓存的查询文档最大条数，超出后按LRU淘汰
+     */
+    private long maximumSize = 1000;
+}
@@ -0,0 +1,118 @@
+package com.sunsc.odokioa.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * 线程池
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * 密码哈希是纯CPU计算，线程数不超过核数，队列有界，满了直接拒绝
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor passwordHashExecutor(PasswordHashProperties properties) {
+        return new ThreadPoolExecutor(
+                properties.getThreads(),
+                properties.getThreads(),
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 哈希完成后的用户插入，阻塞在JDBC上，与哈希线程分开；队列有界，满了直接拒绝
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor userInsertExecutor(UserInsertProperties properties) {
+        return new ThreadPoolExecutor(
+                properties.getThreads(),
+                properties.getThreads(),
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("user-insert-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 慢SQL日志单线程异步输出，队列有界，满了直接拒绝，不拖慢请求线程
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor slowSqlLogExecutor(SlowSqlProperties properties) {
+        return new ThreadPoolExecutor(
+                1,
+                1,
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("slow-sql-log-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 用户导入任务串行执行，避免多个大文件同时抢占哈希线程池和数据库
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor userImportExecutor(UserImportProperties properties) {
+        return new ThreadPoolExecutor(
+                1,
+                1,
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("user-import-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 变更事件投递，每个订阅者同时最多一个待执行任务，队列长度不会超过订阅者数，不需要再设上限
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor changeEventExecutor(ChangeEventProperties properties) {
+        return new ThreadPoolExecutor(
+                properties.getThreads(),
+                properties.getThreads(),
+                60L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("change-event-"));
+    }
+
+    /**
+     * user表跨分片查询，各分片并行执行，队列有界，满了直接拒绝
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor shardQueryExecutor(ShardingProperties properties) {
+        return new ThreadPoolExecutor(
+                properties.getQueryThreads(),
+                properties.getQueryThreads(),
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueryQueueCapacity()),
+                new CustomizableThreadFactory("shard-query-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 逻辑删除归档单线程定时执行
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService archiveExecutor() {
+        return new ScheduledThreadPoolExecutor(1, new CustomizableThreadFactory("archive-"));
+    }
+}
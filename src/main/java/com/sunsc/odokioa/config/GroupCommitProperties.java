@@ -0,0 +1,36 @@
+package com.sunsc.odokioa.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 单个用户写入的合并提交配置
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@ConfigurationProperties(prefix = "odoki.group-commit")
+public class GroupCommitProperties {
+
+    /**
+     * 是否合并提交，关闭时每个addUser各自插入
+     */
+    private boolean enabled = false;
+
+    /**
+     * 第一条写入到达后最多再等多久凑批
+     */
+    private Duration window = Duration.ofMillis(5);
+
+    /**
+     * 每批最多条数，凑满立即提交
+     */
+    private int maxBatchSize = 100;
+
+    /**
+     * 等待提交的队列长度，满了直接拒绝
+     */
+    private int queueCapacity = 10000;
+}
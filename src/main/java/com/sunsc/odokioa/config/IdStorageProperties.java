@@ -0,0 +1,27 @@
+package com.sunsc.odokioa.config;
+
+import com.sunsc.odokioa.enums.IdStorage;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 主键存储配置
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@ConfigurationProperties(prefix = "odoki.id-storage")
+public class IdStorageProperties {
+
+    /**
+     * 存储格式，binary时数据库中的id列为BINARY(12)，接口上仍是十六进制字符串
+     */
+    private IdStorage mode = IdStorage.HEX;
+
+    /**
+     * 存放ObjectId的列，包括主键和引用其他表主键的列
+     */
+    private List<String> columns = List.of("id", "userId", "roleId", "creatorId", "updaterId");
+}
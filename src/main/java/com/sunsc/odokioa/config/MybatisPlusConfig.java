@@ -0,0 +1,64 @@
+package com.sunsc.odokioa.config;
+
+import com.baomidou.mybatisplus.autoconfigure.ConfigurationCustomizer;
+import com.sunsc.odokioa.custom.BinaryIdInterceptor;
+import com.sunsc.odokioa.custom.ObjectIdTypeHandler;
+import com.sunsc.odokioa.custom.SlowSqlInterceptor;
+import com.sunsc.odokioa.custom.StatementMetricsInterceptor;
+import com.sunsc.odokioa.custom.TableVersionInterceptor;
+import com.sunsc.odokioa.service.TableVersions;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.apache.ibatis.type.JdbcType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * mybatis-plus配置
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Configuration
+public class MybatisPlusConfig {
+
+    @Bean
+    public StatementMetricsInterceptor statementMetricsInterceptor(MeterRegistry meterRegistry) {
+        return new StatementMetricsInterceptor(meterRegistry);
+    }
+
+    @Bean
+    public SlowSqlInterceptor slowSqlInterceptor(SlowSqlProperties properties, ThreadPoolExecutor slowSqlLogExecutor,
+                                                 MeterRegistry meterRegistry) {
+        return new SlowSqlInterceptor(properties.getThreshold().toNanos(), properties.getSampleRate(),
+                slowSqlLogExecutor, meterRegistry);
+    }
+
+    @Bean
+    public TableVersionInterceptor tableVersionInterceptor(TableVersions tableVersions) {
+        return new TableVersionInterceptor(tableVersions);
+    }
+
+    /**
+     * BINARY(12)主键模式：读取时BINARY列按ObjectId转成十六进制，写入和查询条件由拦截器转换
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "odoki.id-storage", name = "mode", havingValue = "binary")
+    static class BinaryIdConfig {
+
+        @Bean
+        public ConfigurationCustomizer binaryIdTypeHandlerCustomizer() {
+            return configuration -> {
+                ObjectIdTypeHandler typeHandler = new ObjectIdTypeHandler();
+                configuration.getTypeHandlerRegistry().register(String.class, JdbcType.BINARY, typeHandler);
+                configuration.getTypeHandlerRegistry().register(String.class, JdbcType.VARBINARY, typeHandler);
+            };
+        }
+
+        @Bean
+        public BinaryIdInterceptor binaryIdInterceptor(IdStorageProperties properties) {
+            return new BinaryIdInterceptor(properties.getColumns());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.sunsc.odokioa.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 密码哈希线程池配置
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@ConfigurationProperties(prefix = "odoki.password-hash")
+public class PasswordHashProperties {
+
+    /**
+     * 线程数，默认为CPU核数
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 等待队列长度
+     */
+    private int queueCapacity = 256;
+}
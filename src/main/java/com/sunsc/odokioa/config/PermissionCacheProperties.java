@@ -0,0 +1,26 @@
+package com.sunsc.odokioa.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 用户权限缓存配置
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@ConfigurationProperties(prefix = "odoki.permission-cache")
+public class PermissionCacheProperties {
+
+    /**
+     * 缓存编译后权限的用户数上限
+     */
+    private long maximumSize = 100_000;
+
+    /**
+     * 写入后过期时间，兜底其他实例或直接改库造成的不一致
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
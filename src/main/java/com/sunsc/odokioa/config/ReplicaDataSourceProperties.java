@@ -0,0 +1,43 @@
+package com.sunsc.odokioa.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 从库配置，配置了replicas时启用读写分离，主库仍然是 spring.datasource
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@ConfigurationProperties(prefix = "odoki.datasource")
+public class ReplicaDataSourceProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * 从库健康检查间隔
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * 单次健康检查的超时时间
+     */
+    private Duration healthCheckTimeout = Duration.ofSeconds(1);
+
+    @Data
+    public static class Replica {
+
+        private String url;
+
+        /**
+         * 为空时沿用主库的用户名、密码和驱动
+         */
+        private String username;
+        private String password;
+        private String driverClassName;
+    }
+}
@@ -0,0 +1,40 @@
+package com.sunsc.odokioa.config;
+
+import java.time.Duration;
+import java.util.Set;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * graphql查询结果缓存配置
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@ConfigurationProperties(prefix = "odoki.result-cache")
+public class ResultCacheProperties {
+
+    /**
+     * 是否缓存查询结果并支持ETag
+     */
+    private boolean enabled = true;
+
+    /**
+     * 缓存的响应体总大小上限
+     */
+    private DataSize maximumSize = DataSize.ofMegabytes(64);
+
+    /**
+     * 写入后过期时间，兜底其他实例的写入和从库延迟，本实例的写入通过表版本号立即失效
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(1);
+
+    /**
+     * 可以缓存的顶层查询字段，只有全部顶层字段都在其中的query才缓存；
+     * 结果必须只取决于数据库中的数据，searchUsers、importJob等读内存状态的不能加入
+     */
+    private Set<String> cacheableFields = Set.of("users", "roles", "role",
+            "usersConnection", "rolesConnection", "usersCreatedBetween");
+}
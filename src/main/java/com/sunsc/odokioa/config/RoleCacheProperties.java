@@ -0,0 +1,26 @@
+package com.sunsc.odokioa.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 角色缓存配置
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@ConfigurationProperties(prefix = "odoki.role-cache")
+public class RoleCacheProperties {
+
+    /**
+     * 按id、按code缓存的最大条数
+     */
+    private long maximumSize = 1000;
+
+    /**
+     * 写入后过期时间，兜底其他实例或直接改库造成的不一致
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
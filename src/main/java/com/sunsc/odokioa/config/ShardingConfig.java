@@ -0,0 +1,106 @@
+package com.sunsc.odokioa.config;
+
+import com.sunsc.odokioa.custom.ShardGuardInterceptor;
+import com.sunsc.odokioa.custom.ShardRoutingDataSource;
+import com.sunsc.odokioa.dao.UserMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+/**
+ * user表分库：配置了 odoki.sharding.shards 时，把数据源包装成 {@link ShardRoutingDataSource}，
+ * 原来的数据源(包括读写分离)作为默认数据源，分片的选择见 {@link com.sunsc.odokioa.service.UserShards}
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "odoki.sharding", name = "shards[0].url")
+public class ShardingConfig {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    /**
+     * 最先执行，虚拟线程模式的连接数限制包在分库数据源外面
+     */
+    @Bean
+    public static BeanPostProcessor shardingDataSourcePostProcessor(ObjectProvider<ShardingProperties> properties,
+                                                                    ObjectProvider<DataSourceProperties> primary,
+                                                                    ObjectProvider<MeterRegistry> meterRegistry,
+                                                                    Environment environment) {
+        return new ShardingDataSourcePostProcessor(properties, primary, meterRegistry, environment);
+    }
+
+    /**
+     * 继承自mybatis-plus的方法(lambdaQuery、saveBatch等)不会先选分片，落到默认库时直接失败
+     */
+    @Bean
+    public ShardGuardInterceptor shardGuardInterceptor() {
+        return new ShardGuardInterceptor(UserMapper.class);
+    }
+
+    private record ShardingDataSourcePostProcessor(ObjectProvider<ShardingProperties> properties,
+                                                   ObjectProvider<DataSourceProperties> primary,
+                                                   ObjectProvider<MeterRegistry> meterRegistry,
+                                                   Environment environment)
+            implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!DATA_SOURCE_BEAN.equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            DataSourceProperties primaryProperties = primary.getObject();
+            Binder binder = Binder.get(environment);
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            List<DataSource> shards = new ArrayList<>();
+            for (ShardingProperties.Shard shard : properties.getObject().getShards()) {
+                HikariDataSource shardDataSource = DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .url(shard.getUrl())
+                        .username(orDefault(shard.getUsername(), primaryProperties.determineUsername()))
+                        .password(orDefault(shard.getPassword(), primaryProperties.determinePassword()))
+                        .driverClassName(orDefault(shard.getDriverClassName(),
+                                primaryProperties.determineDriverClassName()))
+                        .build();
+                // 连接池参数与主库、从库一致
+                binder.bind(HIKARI_PREFIX, Bindable.ofInstance(shardDataSource));
+                shardDataSource.setPoolName(ShardRoutingDataSource.SHARD_PREFIX + shards.size());
+                if (registry != null) {
+                    // 分片连接池不是bean，自动配置不会注册hikaricp.*指标，准入控制看不到分片上的等待
+                    shardDataSource.setMetricRegistry(registry);
+                }
+                shards.add(shardDataSource);
+            }
+            log.info("user table sharded over {} datasources", shards.size());
+            return new ShardRoutingDataSource(dataSource, shards);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    private static String orDefault(String value, String defaultValue) {
+        return StringUtils.hasText(value) ? value : defaultValue;
+    }
+}
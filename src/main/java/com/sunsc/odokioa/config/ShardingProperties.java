@@ -0,0 +1,45 @@
+package com.sunsc.odokioa.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * user表分库配置，配置了shards时启用，其他表仍在 spring.datasource
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@ConfigurationProperties(prefix = "odoki.sharding")
+public class ShardingProperties {
+
+    /**
+     * 分片按配置顺序编号，用户按主键哈希对分片数取模落到其中一个；上线后不能再增减或调整顺序
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * 跨分片并行查询的线程数
+     */
+    private int queryThreads = 16;
+
+    /**
+     * 跨分片查询排队的上限，满了直接拒绝
+     */
+    private int queryQueueCapacity = 256;
+
+    @Data
+    public static class Shard {
+
+        private String url;
+
+        /**
+         * 为空时沿用 spring.datasource 的用户名、密码和驱动
+         */
+        private String username;
+        private String password;
+        private String driverClassName;
+    }
+}
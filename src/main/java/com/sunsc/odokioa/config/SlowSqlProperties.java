@@ -0,0 +1,31 @@
+package com.sunsc.odokioa.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 慢SQL日志配置
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@ConfigurationProperties(prefix = "odoki.slow-sql")
+public class SlowSqlProperties {
+
+    /**
+     * 超过该耗时的语句全部记录
+     */
+    private Duration threshold = Duration.ofMillis(200);
+
+    /**
+     * 未超过阈值的语句按该比例抽样记录，0为不记录
+     */
+    private double sampleRate = 0.0;
+
+    /**
+     * 日志队列长度，满了直接丢弃
+     */
+    private int queueCapacity = 1024;
+}
@@ -0,0 +1,36 @@
+package com.sunsc.odokioa.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 用户CSV导入配置
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@ConfigurationProperties(prefix = "odoki.user-import")
+public class UserImportProperties {
+
+    /**
+     * 每个事务插入的行数
+     */
+    private int chunkSize = 500;
+
+    /**
+     * 每个任务最多保留的错误行，超出只计数
+     */
+    private int maxErrorRows = 1000;
+
+    /**
+     * 排队等待的导入任务数，导入任务串行执行
+     */
+    private int queueCapacity = 2;
+
+    /**
+     * 任务结束后状态保留多久
+     */
+    private Duration jobRetention = Duration.ofHours(24);
+}
@@ -0,0 +1,25 @@
+package com.sunsc.odokioa.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 用户插入线程池配置，密码哈希完成后在这个线程池上写库
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@ConfigurationProperties(prefix = "odoki.user-insert")
+public class UserInsertProperties {
+
+    /**
+     * 线程数，插入阻塞在JDBC上，超过连接池大小没有意义
+     */
+    private int threads = 8;
+
+    /**
+     * 等待队列长度
+     */
+    private int queueCapacity = 1024;
+}
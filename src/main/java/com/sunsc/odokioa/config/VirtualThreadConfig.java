@@ -0,0 +1,143 @@
+package com.sunsc.odokioa.config;
+
+import com.sunsc.odokioa.custom.JdbcBulkheadDataSource;
+import com.sunsc.odokioa.util.VirtualThreads;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.Executor;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * 虚拟线程模式：tomcat处理请求和graphql异步执行都放到虚拟线程上，阻塞在数据库上的请求不再占用平台线程。
+ * 请求线程数没有上限后，数据源外包一层 {@link JdbcBulkheadDataSource}，持有连接的线程数不超过连接池大小。
+ * <p>
+ * Connector/J 9.0之前在synchronized块内读写套接字，虚拟线程阻塞在查询上时钉住载体线程，
+ * 同时执行的查询数达到CPU核数后所有虚拟线程都停住，比平台线程更差，这样的驱动直接启动失败
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "odoki.virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private static final String MYSQL_DRIVER = "com.mysql.cj.jdbc.Driver";
+
+    private static final int MIN_MYSQL_DRIVER_MAJOR = 9;
+
+    public VirtualThreadConfig() {
+        checkMysqlDriver();
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        Executor executor = VirtualThreads.newThreadPerTaskExecutor("tomcat-handler-");
+        log.info("tomcat requests run on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    /**
+     * 替换kickstart按 graphql.servlet.async.threads 创建的线程池
+     */
+    @Bean
+    public Executor graphqlAsyncTaskExecutor() {
+        return VirtualThreads.newThreadPerTaskExecutor("graphql-exec-");
+    }
+
+    /**
+     * 用BeanPostProcessor包装，对自动配置的连接池和读写分离数据源都生效；
+     * 配置在包装时才取，避免提前初始化配置绑定
+     */
+    @Bean
+    public static BeanPostProcessor jdbcBulkheadPostProcessor(ObjectProvider<VirtualThreadProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof JdbcBulkheadDataSource) {
+                    return bean;
+                }
+                VirtualThreadProperties config = properties.getObject();
+                int permits = config.getJdbcPermits() > 0 ? config.getJdbcPermits() : poolSize(dataSource);
+                log.info("database connections limited to {} concurrent holders on {}", permits, beanName);
+                return new JdbcBulkheadDataSource(dataSource, permits, config.getJdbcMaxWaiting(),
+                        config.getJdbcAcquireTimeout());
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder jdbcBulkheadMetrics(DataSource dataSource) {
+        return registry -> {
+            if (!(dataSource instanceof JdbcBulkheadDataSource bulkhead)) {
+                return;
+            }
+            Gauge.builder("jdbc.bulkhead.active", bulkhead, JdbcBulkheadDataSource::activeCount)
+                    .description("threads currently holding a database connection")
+                    .register(registry);
+            Gauge.builder("jdbc.bulkhead.waiting", bulkhead, JdbcBulkheadDataSource::waitingCount)
+                    .description("threads waiting for a database connection")
+                    .register(registry);
+            FunctionCounter.builder("jdbc.bulkhead.rejected", bulkhead, JdbcBulkheadDataSource::rejectedCount)
+                    .description("connection requests rejected because too many were waiting or the wait timed out")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * 没有MySQL驱动(如测试用H2)时不检查
+     *
+     * @throws IllegalStateException MySQL驱动版本低于9.0
+     */
+    private static void checkMysqlDriver() {
+        DriverManager.drivers()
+                .filter(driver -> MYSQL_DRIVER.equals(driver.getClass().getName()))
+                .findFirst()
+                .ifPresent(driver -> {
+                    if (driver.getMajorVersion() < MIN_MYSQL_DRIVER_MAJOR) {
+                        throw new IllegalStateException("virtual threads require MySQL Connector/J "
+                                + MIN_MYSQL_DRIVER_MAJOR + ".0 or later, found " + version(driver)
+                                + "; older drivers block in synchronized socket I/O and pin carrier threads");
+                    }
+                    log.info("MySQL Connector/J {} does not pin virtual threads", version(driver));
+                });
+    }
+
+    private static String version(Driver driver) {
+        return driver.getMajorVersion() + "." + driver.getMinorVersion();
+    }
+
+    /**
+     * 路由数据源(读写分离、分库)取各目标连接池大小之和
+     */
+    private static int poolSize(DataSource dataSource) {
+        if (dataSource instanceof AbstractRoutingDataSource routing) {
+            return routing.getResolvedDataSources().values().stream()
+                    .mapToInt(VirtualThreadConfig::poolSize)
+                    .sum();
+        }
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.warn("cannot determine connection pool size, using {}", DEFAULT_POOL_SIZE, e);
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+}
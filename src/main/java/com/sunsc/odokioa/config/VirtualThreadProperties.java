@@ -0,0 +1,36 @@
+package com.sunsc.odokioa.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 虚拟线程模式配置
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@ConfigurationProperties(prefix = "odoki.virtual-threads")
+public class VirtualThreadProperties {
+
+    /**
+     * tomcat请求处理和graphql执行改用虚拟线程，需要JDK 21及以上
+     */
+    private boolean enabled = false;
+
+    /**
+     * 同时持有数据库连接的上限，0为取连接池的maximum-pool-size(路由数据源取各连接池之和，取不到时为10)
+     */
+    private int jdbcPermits = 0;
+
+    /**
+     * 等待连接的线程数上限，超过直接失败
+     */
+    private int jdbcMaxWaiting = 1000;
+
+    /**
+     * 等待连接的最长时间
+     */
+    private Duration jdbcAcquireTimeout = Duration.ofSeconds(5);
+}
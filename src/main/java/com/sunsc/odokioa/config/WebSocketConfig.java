@@ -0,0 +1,37 @@
+package com.sunsc.odokioa.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.server.standard.ServerEndpointExporter;
+
+/**
+ * websocket订阅端点注册
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Configuration
+public class WebSocketConfig {
+
+    /**
+     * 替换kickstart默认的exporter：没有websocket容器时(如MOCK环境的SpringBootTest)跳过端点注册，而不是启动失败
+     */
+    @Bean
+    public ServerEndpointExporter serverEndpointExporter() {
+        return new ServerEndpointExporter() {
+            @Override
+            public void afterPropertiesSet() {
+                if (getServerContainer() != null) {
+                    super.afterPropertiesSet();
+                }
+            }
+
+            @Override
+            public void afterSingletonsInstantiated() {
+                if (getServerContainer() != null) {
+                    super.afterSingletonsInstantiated();
+                }
+            }
+        };
+    }
+}
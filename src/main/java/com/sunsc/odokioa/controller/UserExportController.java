@@ -0,0 +1,134 @@
+package com.sunsc.odokioa.controller;
+
+import com.alibaba.fastjson.JSON;
+import com.sunsc.odokioa.custom.DataSourceRoute;
+import com.sunsc.odokioa.custom.RequestUserResolver;
+import com.sunsc.odokioa.domain.User;
+import com.sunsc.odokioa.enums.ExportFormat;
+import com.sunsc.odokioa.enums.Permission;
+import com.sunsc.odokioa.service.PermissionService;
+import com.sunsc.odokioa.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * 用户全量导出，边查边写，不在内存里攒结果；需要 {@link Permission#USER_EXPORT} 权限
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@RestController
+@RequestMapping("/export")
+public class UserExportController {
+
+    /**
+     * 每写这么多行主动flush一次，客户端不必等查询结束才收到数据
+     */
+    private static final int FLUSH_ROWS = 1000;
+
+    private static final String CSV_HEADER = "id,code,name,mobile,avatar,gender,birthday,createTime,updateTime";
+
+    private final UserService userService;
+
+    private final PermissionService permissionService;
+
+    private final RequestUserResolver requestUserResolver;
+
+    public UserExportController(UserService userService, PermissionService permissionService,
+                                RequestUserResolver requestUserResolver) {
+        this.userService = userService;
+        this.permissionService = permissionService;
+        this.requestUserResolver = requestUserResolver;
+    }
+
+    /**
+     * @param format ndjson或csv
+     */
+    @GetMapping("/users")
+    public ResponseEntity<StreamingResponseBody> users(@RequestParam(defaultValue = "ndjson") String format,
+                                                       HttpServletRequest request) {
+        if (!permissionService.isAllowed(requestUserResolver.userIdOf(request), Permission.USER_EXPORT)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "permission USER_EXPORT required");
+        }
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be ndjson or csv");
+        }
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (exportFormat == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            int[] rows = {0};
+            // 全表导出只读，走从库；游标按语句流式读取，从库连接串上不需要 useCursorFetch
+            DataSourceRoute.useReplica();
+            try {
+                userService.forEachUser(user -> {
+                    try {
+                        writer.write(exportFormat == ExportFormat.CSV ? toCsv(user) : JSON.toJSONString(user));
+                        writer.write('\n');
+                        if (++rows[0] % FLUSH_ROWS == 0) {
+                            writer.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } finally {
+                DataSourceRoute.clear();
+            }
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=users." + exportFormat.getExtension())
+                .body(body);
+    }
+
+    private static String toCsv(User user) {
+        StringBuilder line = new StringBuilder(128);
+        line.append(csv(user.getId())).append(',')
+                .append(csv(user.getCode())).append(',')
+                .append(csv(user.getName())).append(',')
+                .append(csv(user.getMobile())).append(',')
+                .append(csv(user.getAvatar())).append(',')
+                .append(csv(user.getGender())).append(',')
+                .append(csv(user.getBirthday())).append(',')
+                .append(csv(user.getCreateTime())).append(',')
+                .append(csv(user.getUpdateTime()));
+        return line.toString();
+    }
+
+    /**
+     * 含逗号、引号或换行的字段加引号，引号转义为两个引号
+     */
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,64 @@
+package com.sunsc.odokioa.controller;
+
+import com.sunsc.odokioa.common.ServiceBusyException;
+import com.sunsc.odokioa.custom.RequestUserResolver;
+import com.sunsc.odokioa.domain.vo.ImportJob;
+import com.sunsc.odokioa.enums.Permission;
+import com.sunsc.odokioa.service.PermissionService;
+import com.sunsc.odokioa.service.UserImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 用户CSV导入，上传后异步执行，进度通过graphql的 importJob(id) 查询；需要 {@link Permission#USER_IMPORT} 权限
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@RestController
+@RequestMapping("/import")
+public class UserImportController {
+
+    private final UserImportService userImportService;
+
+    private final PermissionService permissionService;
+
+    private final RequestUserResolver requestUserResolver;
+
+    public UserImportController(UserImportService userImportService, PermissionService permissionService,
+                                RequestUserResolver requestUserResolver) {
+        this.userImportService = userImportService;
+        this.permissionService = permissionService;
+        this.requestUserResolver = requestUserResolver;
+    }
+
+    /**
+     * @param file CSV文件，表单字段名file
+     * @return 任务id
+     */
+    @PostMapping("/users")
+    public ResponseEntity<Map<String, String>> users(@RequestParam("file") MultipartFile file,
+                                                     HttpServletRequest request) throws IOException {
+        if (!permissionService.isAllowed(requestUserResolver.userIdOf(request), Permission.USER_IMPORT)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "permission USER_IMPORT required");
+        }
+        if (file.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "file is empty");
+        }
+        try {
+            ImportJob job = userImportService.submit(file);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("id", job.getId()));
+        } catch (ServiceBusyException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+}
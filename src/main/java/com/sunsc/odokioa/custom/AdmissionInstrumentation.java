@@ -0,0 +1,186 @@
+package com.sunsc.odokioa.custom;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sunsc.odokioa.config.AdmissionProperties;
+import com.sunsc.odokioa.util.AdaptiveLimiter;
+import com.sunsc.odokioa.util.TokenBucket;
+import graphql.ExecutionResult;
+import graphql.GraphQLContext;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.language.OperationDefinition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * graphql准入控制：执行每个操作前先过客户端的令牌桶，再过全局的自适应并发上限，任一不通过立即以graphql错误返回，不排队
+ * <p>
+ * query和mutation各有一套令牌桶和并发上限。并发上限按操作耗时和连接池等待线程数自动收缩、放开，
+ * 数据库变慢时先少放请求进来，而不是让请求堆在连接池上。subscription不限制。
+ * 客户端按已认证的用户id区分，即受信任网关传来的 {@link PermissionInstrumentation#USER_ID_HEADER}(见 {@link RequestUserResolver})；
+ * 匿名请求按客户端地址区分，经过受信任网关时取网关转发的客户端地址({@link RequestUserResolver#clientAddressOf})，
+ * 否则网关后面的匿名客户端会共用网关地址的令牌桶；其他请求头可以随便伪造，不能用来换一个新的令牌桶
+ * <p>
+ * 排在其他instrumentation之前执行，被拒绝的操作不会进入读写分离、结果缓存等后续处理
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "odoki.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionInstrumentation implements Instrumentation {
+
+    private static final String METRIC_PREFIX = "graphql.admission";
+
+    /**
+     * 连接池等待线程数的采样间隔
+     */
+    private static final long POOL_SAMPLE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AdmissionProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final RequestUserResolver requestUserResolver;
+
+    private final Lane query;
+
+    private final Lane mutation;
+
+    private volatile long poolSampledAt = System.nanoTime() - POOL_SAMPLE_NANOS;
+
+    private volatile boolean poolOverloaded;
+
+    public AdmissionInstrumentation(AdmissionProperties properties, MeterRegistry meterRegistry,
+                                    RequestUserResolver requestUserResolver) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.requestUserResolver = requestUserResolver;
+        this.query = new Lane("query", properties.getQuery());
+        this.mutation = new Lane("mutation", properties.getMutation());
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        OperationDefinition.Operation operation =
+                parameters.getExecutionContext().getOperationDefinition().getOperation();
+        Lane lane = switch (operation) {
+            case QUERY -> query;
+            case MUTATION -> mutation;
+            default -> null;
+        };
+        if (lane == null) {
+            return SimpleInstrumentationContext.noOp();
+        }
+        long start = System.nanoTime();
+        lane.admit(clientOf(parameters.getExecutionContext().getGraphQLContext()), start);
+        return SimpleInstrumentationContext.whenCompleted((result, throwable) ->
+                lane.limiter.release(System.nanoTime() - start, isPoolOverloaded()));
+    }
+
+    /**
+     * 用户id和地址加上不同前缀，互相不会撞上
+     */
+    private String clientOf(GraphQLContext context) {
+        String userId = context.get(PermissionInstrumentation.USER_ID);
+        if (userId != null) {
+            return "user:" + userId;
+        }
+        HttpServletRequest request = context.get(HttpServletRequest.class);
+        return "addr:" + (request == null ? "" : requestUserResolver.clientAddressOf(request));
+    }
+
+    /**
+     * 连接池和虚拟线程模式下连接限制上等待的线程数，最多每100ms读一次；主库、从库和分片的连接池都注册了hikaricp.*指标
+     */
+    private boolean isPoolOverloaded() {
+        long now = System.nanoTime();
+        if (now - poolSampledAt >= POOL_SAMPLE_NANOS) {
+            poolSampledAt = now;
+            double pending = meterRegistry.find("hikaricp.connections.pending").gauges().stream()
+                    .mapToDouble(Gauge::value)
+                    .sum()
+                    + meterRegistry.find("jdbc.bulkhead.waiting").gauges().stream()
+                    .mapToDouble(Gauge::value)
+                    .sum();
+            poolOverloaded = pending > properties.getPoolPendingThreshold();
+        }
+        return poolOverloaded;
+    }
+
+    /**
+     * 一类操作的令牌桶和并发上限
+     */
+    private final class Lane {
+
+        private final AdmissionProperties.Limits limits;
+
+        private final AdaptiveLimiter limiter;
+
+        private final Cache<String, TokenBucket> buckets;
+
+        private final Counter rateLimited;
+
+        private final Counter overLimit;
+
+        Lane(String operation, AdmissionProperties.Limits limits) {
+            this.limits = limits;
+            this.limiter = new AdaptiveLimiter(limits.getInitialLimit(), limits.getMinLimit(), limits.getMaxLimit(),
+                    properties.getLatencyTolerance(), properties.getBackoffRatio());
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(properties.getMaxClients())
+                    .expireAfterAccess(properties.getClientIdleTimeout())
+                    .build();
+            this.rateLimited = rejected(operation, "rate");
+            this.overLimit = rejected(operation, "concurrency");
+            Gauge.builder(METRIC_PREFIX + ".limit", limiter, AdaptiveLimiter::getLimit)
+                    .description("current adaptive concurrency limit")
+                    .tag("operation", operation)
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".inflight", limiter, AdaptiveLimiter::getInflight)
+                    .description("operations currently executing")
+                    .tag("operation", operation)
+                    .register(meterRegistry);
+        }
+
+        private Counter rejected(String operation, String reason) {
+            return Counter.builder(METRIC_PREFIX + ".rejected")
+                    .description("operations rejected by admission control")
+                    .tag("operation", operation)
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * @throws AbortExecutionException 超过客户端速率或全局并发上限
+         */
+        void admit(String client, long now) {
+            if (limits.getRate() > 0) {
+                TokenBucket bucket = buckets.get(client,
+                        k -> new TokenBucket(limits.getRate(), limits.getBurst(), now));
+                if (!bucket.tryTake(now)) {
+                    rateLimited.increment();
+                    throw new AbortExecutionException("rate limit exceeded, please retry later");
+                }
+            }
+            if (!limiter.tryAcquire()) {
+                overLimit.increment();
+                throw new AbortExecutionException("server is busy, please retry later");
+            }
+        }
+    }
+}
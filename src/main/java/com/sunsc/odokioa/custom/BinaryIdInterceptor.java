@@ -0,0 +1,227 @@
+package com.sunsc.odokioa.custom;
+
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.BinaryExpression;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.ExpressionVisitorAdapter;
+import net.sf.jsqlparser.expression.JdbcParameter;
+import net.sf.jsqlparser.expression.operators.relational.Between;
+import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
+import net.sf.jsqlparser.expression.operators.relational.InExpression;
+import net.sf.jsqlparser.expression.operators.relational.ItemsList;
+import net.sf.jsqlparser.expression.operators.relational.MultiExpressionList;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.statement.delete.Delete;
+import net.sf.jsqlparser.statement.insert.Insert;
+import net.sf.jsqlparser.statement.select.Join;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.select.SelectBody;
+import net.sf.jsqlparser.statement.select.SetOperationList;
+import net.sf.jsqlparser.statement.update.Update;
+import net.sf.jsqlparser.statement.update.UpdateSet;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * BINARY(12)主键模式下，把绑定到ObjectId列的参数换成ObjectIdTypeHandler。
+ *
+ * <p>MyBatis-Plus的主键、逻辑删除和条件构造器生成的参数都不带typeHandler，这里解析SQL，
+ * 找出与ObjectId列比较、赋值或插入的占位符，结果按SQL缓存。解析不了的SQL直接报错，
+ * 不按字符串绑定后悄悄查不到数据。
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Intercepts(@Signature(type = StatementHandler.class, method = "parameterize", args = Statement.class))
+public class BinaryIdInterceptor implements Interceptor {
+
+    private static final int MAX_CACHED_STATEMENTS = 4096;
+
+    private final Set<String> idColumns = new HashSet<>();
+    private final ObjectIdTypeHandler typeHandler = new ObjectIdTypeHandler();
+    private final Map<String, BitSet> idParameters = new ConcurrentHashMap<>();
+
+    public BinaryIdInterceptor(Collection<String> idColumns) {
+        for (String column : idColumns) {
+            this.idColumns.add(column.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        PluginUtils.MPStatementHandler handler =
+                PluginUtils.mpStatementHandler((StatementHandler) invocation.getTarget());
+        BoundSql boundSql = handler.boundSql();
+        List<ParameterMapping> mappings = boundSql.getParameterMappings();
+        if (!mappings.isEmpty()) {
+            BitSet positions = idParameters.get(boundSql.getSql());
+            if (positions == null) {
+                if (idParameters.size() >= MAX_CACHED_STATEMENTS) {
+                    idParameters.clear();
+                }
+                positions = analyze(boundSql.getSql());
+                idParameters.put(boundSql.getSql(), positions);
+            }
+            if (!positions.isEmpty()) {
+                // 静态SQL的BoundSql与MappedStatement共用同一个列表，不能原地修改，换成本次执行自己的列表
+                List<ParameterMapping> converted = new ArrayList<>(mappings);
+                Configuration configuration = handler.configuration();
+                for (int i = positions.nextSetBit(0); i >= 0 && i < converted.size();
+                     i = positions.nextSetBit(i + 1)) {
+                    ParameterMapping mapping = converted.get(i);
+                    converted.set(i, new ParameterMapping.Builder(configuration, mapping.getProperty(), typeHandler)
+                            .javaType(String.class)
+                            .jdbcType(JdbcType.BINARY)
+                            .build());
+                }
+                PluginUtils.mpBoundSql(boundSql).parameterMappings(converted);
+            }
+        }
+        return invocation.proceed();
+    }
+
+    /**
+     * @return 绑定到ObjectId列的占位符下标，从0开始
+     * @throws IllegalStateException SQL解析失败；这时没法知道哪些参数要转成BINARY，按字符串绑定只会什么都匹配不上
+     */
+    private BitSet analyze(String sql) {
+        BitSet positions = new BitSet();
+        net.sf.jsqlparser.statement.Statement statement;
+        try {
+            statement = CCJSqlParserUtil.parse(sql);
+        } catch (JSQLParserException e) {
+            throw new IllegalStateException("can not parse sql to find ObjectId parameters: " + sql, e);
+        }
+        if (statement instanceof Select select) {
+            visit(select.getSelectBody(), positions);
+        } else if (statement instanceof Insert insert) {
+            visit(insert, positions);
+        } else if (statement instanceof Update update) {
+            for (UpdateSet updateSet : update.getUpdateSets()) {
+                pair(updateSet.getColumns(), updateSet.getExpressions(), positions);
+            }
+            visit(update.getWhere(), positions);
+        } else if (statement instanceof Delete delete) {
+            visit(delete.getWhere(), positions);
+        }
+        return positions;
+    }
+
+    private void visit(Insert insert, BitSet positions) {
+        ItemsList items = insert.getItemsList();
+        if (items instanceof ExpressionList values) {
+            pair(insert.getColumns(), values.getExpressions(), positions);
+        } else if (items instanceof MultiExpressionList rows) {
+            for (ExpressionList values : rows.getExpressionLists()) {
+                pair(insert.getColumns(), values.getExpressions(), positions);
+            }
+        }
+        if (insert.getSelect() != null) {
+            visit(insert.getSelect().getSelectBody(), positions);
+        }
+    }
+
+    private void visit(SelectBody selectBody, BitSet positions) {
+        if (selectBody instanceof PlainSelect plainSelect) {
+            if (plainSelect.getJoins() != null) {
+                for (Join join : plainSelect.getJoins()) {
+                    join.getOnExpressions().forEach(on -> visit(on, positions));
+                }
+            }
+            visit(plainSelect.getWhere(), positions);
+            visit(plainSelect.getHaving(), positions);
+        } else if (selectBody instanceof SetOperationList setOperationList) {
+            setOperationList.getSelects().forEach(select -> visit(select, positions));
+        }
+    }
+
+    private void visit(Expression expression, BitSet positions) {
+        if (expression != null) {
+            expression.accept(new IdParameterFinder(positions));
+        }
+    }
+
+    private void pair(List<Column> columns, List<Expression> values, BitSet positions) {
+        for (int i = 0; i < columns.size() && i < values.size(); i++) {
+            if (isIdColumn(columns.get(i))) {
+                mark(values.get(i), positions);
+            }
+        }
+    }
+
+    private boolean isIdColumn(Expression expression) {
+        return expression instanceof Column column
+                && idColumns.contains(unquote(column.getColumnName()).toLowerCase(Locale.ROOT));
+    }
+
+    private static String unquote(String name) {
+        return name.length() > 1 && (name.charAt(0) == '`' || name.charAt(0) == '"')
+                ? name.substring(1, name.length() - 1)
+                : name;
+    }
+
+    private static void mark(Expression expression, BitSet positions) {
+        if (expression instanceof JdbcParameter parameter && parameter.getIndex() != null) {
+            positions.set(parameter.getIndex() - 1);
+        }
+    }
+
+    /**
+     * 找出 id = ?、id > ?、id IN (?, ?)、id BETWEEN ? AND ? 中的占位符
+     */
+    private class IdParameterFinder extends ExpressionVisitorAdapter {
+
+        private final BitSet positions;
+
+        IdParameterFinder(BitSet positions) {
+            this.positions = positions;
+        }
+
+        @Override
+        protected void visitBinaryExpression(BinaryExpression expr) {
+            if (isIdColumn(expr.getLeftExpression())) {
+                mark(expr.getRightExpression(), positions);
+            } else if (isIdColumn(expr.getRightExpression())) {
+                mark(expr.getLeftExpression(), positions);
+            }
+            super.visitBinaryExpression(expr);
+        }
+
+        @Override
+        public void visit(InExpression expr) {
+            if (isIdColumn(expr.getLeftExpression()) && expr.getRightItemsList() instanceof ExpressionList values) {
+                values.getExpressions().forEach(value -> mark(value, positions));
+            }
+            super.visit(expr);
+        }
+
+        @Override
+        public void visit(Between expr) {
+            if (isIdColumn(expr.getLeftExpression())) {
+                mark(expr.getBetweenExpressionStart(), positions);
+                mark(expr.getBetweenExpressionEnd(), positions);
+            }
+            super.visit(expr);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.sunsc.odokioa.custom;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sunsc.odokioa.config.DocumentCacheProperties;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+import graphql.execution.preparsed.persisted.PersistedQueryCache;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 缓存解析、校验后的查询文档，相同的查询文本不再重复parse和validate
+ * <p>
+ * 缓存以查询文本的sha256为key，与apollo自动持久化查询(APQ)的hash一致，两者共用一份LRU：
+ * 请求带 extensions.persistedQuery.sha256Hash 时，只有hash命中缓存即可执行，
+ * 未命中返回 PersistedQueryNotFound，客户端再带上完整查询重试；带了查询文本时校验hash后写入缓存
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Component
+public class CachingPreparsedDocumentProvider extends ApolloPersistedQuerySupport {
+
+    private final DocumentCache documentCache;
+
+    @Autowired
+    public CachingPreparsedDocumentProvider(DocumentCacheProperties properties, MeterRegistry meterRegistry) {
+        this(new DocumentCache(CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .recordStats()
+                .build(), "graphql.documents")));
+    }
+
+    private CachingPreparsedDocumentProvider(DocumentCache documentCache) {
+        super(documentCache);
+        this.documentCache = documentCache;
+    }
+
+    @Override
+    public PreparsedDocumentEntry getDocument(ExecutionInput executionInput,
+                                              Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        if (getPersistedQueryId(executionInput).isPresent()) {
+            return super.getDocument(executionInput, parseAndValidateFunction);
+        }
+        return documentCache.get(sha256(executionInput.getQuery()),
+                () -> parseAndValidateFunction.apply(executionInput));
+    }
+
+    private static String sha256(String query) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(query.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class DocumentCache implements PersistedQueryCache {
+
+        private final Cache<Object, PreparsedDocumentEntry> cache;
+
+        DocumentCache(Cache<Object, PreparsedDocumentEntry> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public PreparsedDocumentEntry getPersistedQueryDocument(Object persistedQueryId, ExecutionInput executionInput,
+                                                                PersistedQueryCacheMiss onCacheMiss) {
+            String query = executionInput.getQuery();
+            // 只带hash的请求，查询文本是占位符，交给onCacheMiss返回PersistedQueryNotFound
+            String queryText = PERSISTED_QUERY_MARKER.equals(query) ? null : query;
+            String id = persistedQueryId.toString().toLowerCase();
+            if (queryText != null && !sha256(queryText).equals(id)) {
+                // hash与查询文本不符，不能拿缓存里别的查询来执行，由onCacheMiss返回PersistedQueryIdInvalid
+                return onCacheMiss.apply(queryText);
+            }
+            return get(id, () -> onCacheMiss.apply(queryText));
+        }
+
+        /**
+         * 有错误的解析结果不缓存，避免错误查询挤掉正常查询
+         */
+        PreparsedDocumentEntry get(String key, Supplier<PreparsedDocumentEntry> loader) {
+            PreparsedDocumentEntry entry = cache.getIfPresent(key);
+            if (entry != null) {
+                return entry;
+            }
+            entry = loader.get();
+            if (!entry.hasErrors()) {
+                cache.put(key, entry);
+            }
+            return entry;
+        }
+    }
+}
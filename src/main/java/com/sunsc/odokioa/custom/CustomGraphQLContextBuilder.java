@@ -0,0 +1,58 @@
+package com.sunsc.odokioa.custom;
+
+import com.sunsc.odokioa.loader.DataLoaderRegistryFactory;
+import graphql.kickstart.execution.context.GraphQLKickstartContext;
+import graphql.kickstart.servlet.context.DefaultGraphQLServletContextBuilder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.websocket.Session;
+import jakarta.websocket.server.HandshakeRequest;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * graphql上下文，为每个请求挂上独立的DataLoaderRegistry、读写分离路由状态和当前用户id。
+ * 当前用户id只取受信任网关传来的，见 {@link RequestUserResolver}；websocket握手拿不到对端地址，订阅一律按匿名用户
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Component
+public class CustomGraphQLContextBuilder extends DefaultGraphQLServletContextBuilder {
+
+    private final DataLoaderRegistryFactory dataLoaderRegistryFactory;
+
+    private final RequestUserResolver requestUserResolver;
+
+    public CustomGraphQLContextBuilder(DataLoaderRegistryFactory dataLoaderRegistryFactory,
+                                       RequestUserResolver requestUserResolver) {
+        this.dataLoaderRegistryFactory = dataLoaderRegistryFactory;
+        this.requestUserResolver = requestUserResolver;
+    }
+
+    @Override
+    public GraphQLKickstartContext build(HttpServletRequest request, HttpServletResponse response) {
+        return withRequestScope(super.build(request, response), requestUserResolver.userIdOf(request));
+    }
+
+    @Override
+    public GraphQLKickstartContext build(Session session, HandshakeRequest handshakeRequest) {
+        return withRequestScope(super.build(session, handshakeRequest), null);
+    }
+
+    @Override
+    public GraphQLKickstartContext build() {
+        return withRequestScope(super.build(), null);
+    }
+
+    private GraphQLKickstartContext withRequestScope(GraphQLKickstartContext context, String userId) {
+        Map<Object, Object> mapOfContext = new HashMap<>(context.getMapOfContext());
+        mapOfContext.put(DataSourceRoute.class, new DataSourceRoute());
+        if (StringUtils.hasText(userId)) {
+            mapOfContext.put(PermissionInstrumentation.USER_ID, userId);
+        }
+        return GraphQLKickstartContext.of(dataLoaderRegistryFactory.create(), mapOfContext);
+    }
+}
@@ -20,6 +20,6 @@ public class CustomIdGenerator implements IdentifierGenerator {
     @SuppressWarnings("AlibabaLowerCamelCaseVariableNaming")
     @Override
     public String nextUUID(Object entity) {
-        return ObjectId.get();
+        return ObjectId.nextHexString();
     }
 }
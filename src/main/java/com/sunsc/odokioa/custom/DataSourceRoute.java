@@ -0,0 +1,43 @@
+package com.sunsc.odokioa.custom;
+
+/**
+ * 读写分离路由
+ * <p>
+ * 当前线程标记为只读时，{@link ReadWriteRoutingDataSource} 从从库取连接，没有标记时一律走主库；
+ * 实例挂在每个请求的graphql上下文上，记录本次请求是否已经执行过mutation，执行过之后剩下的操作都走主库，保证读到自己刚写的数据
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+public class DataSourceRoute {
+
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+
+    private volatile boolean written;
+
+    public boolean isWritten() {
+        return written;
+    }
+
+    public void markWritten() {
+        this.written = true;
+    }
+
+    /**
+     * 当前线程之后的查询走从库
+     */
+    public static void useReplica() {
+        READ_ONLY.set(Boolean.TRUE);
+    }
+
+    /**
+     * 当前线程之后的查询走主库
+     */
+    public static void clear() {
+        READ_ONLY.remove();
+    }
+
+    public static boolean isReadOnly() {
+        return READ_ONLY.get() != null;
+    }
+}
@@ -0,0 +1,42 @@
+package com.sunsc.odokioa.custom;
+
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.language.OperationDefinition;
+import org.springframework.stereotype.Component;
+
+/**
+ * 按graphql操作类型选择数据源：query走从库，mutation和subscription走主库，
+ * 同一个请求里执行过mutation之后，后续的query也走主库
+ * <p>
+ * 路由标记只在执行线程同步执行期间有效，异步线程上的查询默认走主库
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Component
+public class DataSourceRouteInstrumentation implements Instrumentation {
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        ExecutionContext executionContext = parameters.getExecutionContext();
+        DataSourceRoute route = executionContext.getGraphQLContext().get(DataSourceRoute.class);
+        if (executionContext.getOperationDefinition().getOperation() != OperationDefinition.Operation.QUERY) {
+            if (route != null) {
+                route.markWritten();
+            }
+            DataSourceRoute.clear();
+        } else if (route == null || !route.isWritten()) {
+            DataSourceRoute.useReplica();
+        } else {
+            DataSourceRoute.clear();
+        }
+        return SimpleInstrumentationContext.whenDispatched(result -> DataSourceRoute.clear());
+    }
+}
@@ -0,0 +1,165 @@
+package com.sunsc.odokioa.custom;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * 限制同时持有数据库连接的线程数
+ * <p>
+ * 虚拟线程模式下请求线程数不再有上限，几千个线程同时向连接池要连接时，
+ * 都会堆在连接池里等待直到超时。这里先用公平信号量排队，许可数与连接池大小一致，
+ * 排队的线程过多或等待超时时立即失败；连接close时归还许可
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+public class JdbcBulkheadDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final int permits;
+    private final Semaphore semaphore;
+    private final int maxWaiting;
+    private final long timeoutNanos;
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * @param target     实际的数据源
+     * @param permits    同时持有连接的上限
+     * @param maxWaiting 等待线程数上限
+     * @param timeout    最长等待时间
+     */
+    public JdbcBulkheadDataSource(DataSource target, int permits, int maxWaiting, Duration timeout) {
+        super(target);
+        this.permits = permits;
+        this.semaphore = new Semaphore(permits, true);
+        this.maxWaiting = maxWaiting;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return guard(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            semaphore.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return guard(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            semaphore.release();
+            throw e;
+        }
+    }
+
+    /**
+     * @return 正在持有连接的线程数
+     */
+    public int activeCount() {
+        return permits - semaphore.availablePermits();
+    }
+
+    /**
+     * @return 正在等待的线程数(估计值)
+     */
+    public int waitingCount() {
+        return semaphore.getQueueLength();
+    }
+
+    /**
+     * @return 排队已满或等待超时被拒绝的总次数
+     */
+    public long rejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * 替换了原来的数据源bean，容器关闭时只会调用这里，需要转给实际的数据源关闭连接池
+     */
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private void acquire() throws SQLException {
+        if (semaphore.tryAcquire()) {
+            return;
+        }
+        if (semaphore.getQueueLength() >= maxWaiting) {
+            rejected.incrementAndGet();
+            throw new SQLTransientConnectionException("too many threads waiting for a database connection");
+        }
+        try {
+            if (semaphore.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("interrupted while waiting for a database connection", e);
+        }
+        rejected.incrementAndGet();
+        throw new SQLTransientConnectionException("timed out waiting for a database connection after "
+                + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + "ms");
+    }
+
+    /**
+     * 代理连接，第一次close时归还许可
+     */
+    private Connection guard(Connection connection) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            if (closed.compareAndSet(false, true)) {
+                                try {
+                                    connection.close();
+                                } finally {
+                                    semaphore.release();
+                                }
+                            }
+                            return null;
+                        case "isClosed":
+                            return closed.get() || connection.isClosed();
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "unwrap":
+                            if (((Class<?>) args[0]).isInstance(proxy)) {
+                                return proxy;
+                            }
+                            break;
+                        case "isWrapperFor":
+                            if (((Class<?>) args[0]).isInstance(proxy)) {
+                                return true;
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,60 @@
+package com.sunsc.odokioa.custom;
+
+import graphql.execution.ExecutionStepInfo;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * 记录每个字段resolver的耗时，指标名 graphql.fetcher，按 type、field、outcome 区分
+ * <p>
+ * 默认的属性读取(trivial data fetcher)不计时，异步resolver在CompletableFuture完成时结束计时
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Component
+public class MetricsInstrumentation implements Instrumentation {
+
+    private static final String METRIC_NAME = "graphql.fetcher";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public MetricsInstrumentation(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public InstrumentationContext<Object> beginFieldFetch(InstrumentationFieldFetchParameters parameters,
+                                                         InstrumentationState state) {
+        if (parameters.isTrivialDataFetcher()) {
+            return SimpleInstrumentationContext.noOp();
+        }
+        ExecutionStepInfo stepInfo = parameters.getExecutionStepInfo();
+        String type = stepInfo.getObjectType().getName();
+        String field = stepInfo.getFieldDefinition().getName();
+        long start = System.nanoTime();
+        return SimpleInstrumentationContext.whenCompleted((result, throwable) ->
+                timer(type, field, throwable == null ? "success" : "error")
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    private Timer timer(String type, String field, String outcome) {
+        return timers.computeIfAbsent(type + '.' + field + '.' + outcome, key -> Timer.builder(METRIC_NAME)
+                .description("graphql field fetcher latency")
+                .tag("type", type)
+                .tag("field", field)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+}
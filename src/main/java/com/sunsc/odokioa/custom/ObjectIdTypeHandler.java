@@ -0,0 +1,47 @@
+package com.sunsc.odokioa.custom;
+
+import com.sunsc.odokioa.util.ObjectId;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.MappedJdbcTypes;
+import org.apache.ibatis.type.MappedTypes;
+
+/**
+ * 十六进制ObjectId与BINARY(12)互转
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@MappedTypes(String.class)
+@MappedJdbcTypes({JdbcType.BINARY, JdbcType.VARBINARY})
+public class ObjectIdTypeHandler extends BaseTypeHandler<String> {
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, String parameter, JdbcType jdbcType)
+            throws SQLException {
+        ps.setBytes(i, new ObjectId(parameter).toByteArray());
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return toHex(rs.getBytes(columnName));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return toHex(rs.getBytes(columnIndex));
+    }
+
+    @Override
+    public String getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return toHex(cs.getBytes(columnIndex));
+    }
+
+    private static String toHex(byte[] bytes) {
+        return bytes == null ? null : new ObjectId(bytes).toHexString();
+    }
+}
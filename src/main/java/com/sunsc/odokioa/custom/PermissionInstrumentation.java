@@ -0,0 +1,97 @@
+package com.sunsc.odokioa.custom;
+
+import com.sunsc.odokioa.common.PermissionDeniedException;
+import com.sunsc.odokioa.enums.Permission;
+import com.sunsc.odokioa.service.PermissionService;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.language.Argument;
+import graphql.language.Directive;
+import graphql.language.StringValue;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLAppliedDirective;
+import graphql.schema.GraphQLFieldDefinition;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * 字段权限检查：schema中标注了 {@code @requires(permission: "XXX")} 的字段，
+ * 当前用户没有对应权限时不执行resolver，该字段返回错误；没有开启 odoki.auth.enforce 时只计数，见 {@link PermissionService#isAllowed}
+ * <p>
+ * 当前用户由网关认证后通过 {@value #USER_ID_HEADER} 请求头传入，只采信受信任网关发来的(见 {@link RequestUserResolver})，
+ * 没有时视为没有任何权限
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Component
+public class PermissionInstrumentation implements Instrumentation {
+
+    public static final String DIRECTIVE = "requires";
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+
+    /**
+     * graphql上下文中当前用户id的key
+     */
+    public static final String USER_ID = PermissionInstrumentation.class.getName() + ".userId";
+
+    private static final String ARGUMENT = "permission";
+
+    private final PermissionService permissionService;
+
+    /**
+     * 字段 -> 需要的权限，没有标注时为empty
+     */
+    private final Map<GraphQLFieldDefinition, Optional<Permission>> required = new ConcurrentHashMap<>();
+
+    public PermissionInstrumentation(PermissionService permissionService) {
+        this.permissionService = permissionService;
+    }
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher,
+                                                InstrumentationFieldFetchParameters parameters,
+                                                InstrumentationState state) {
+        GraphQLFieldDefinition field = parameters.getExecutionStepInfo().getFieldDefinition();
+        Optional<Permission> permission = required.computeIfAbsent(field, PermissionInstrumentation::requiredOf);
+        if (permission.isEmpty()) {
+            return dataFetcher;
+        }
+        Permission needed = permission.get();
+        return env -> {
+            String userId = env.getGraphQlContext().get(USER_ID);
+            if (!permissionService.isAllowed(userId, needed)) {
+                throw new PermissionDeniedException("permission " + needed + " required for " + field.getName());
+            }
+            return dataFetcher.get(env);
+        };
+    }
+
+    private static Optional<Permission> requiredOf(GraphQLFieldDefinition field) {
+        String name = null;
+        GraphQLAppliedDirective applied = field.getAppliedDirective(DIRECTIVE);
+        if (applied != null && applied.getArgument(ARGUMENT) != null) {
+            name = applied.getArgument(ARGUMENT).getValue();
+        } else if (field.getDefinition() != null) {
+            // schema工具没有生成applied directive时从SDL读取
+            for (Directive directive : field.getDefinition().getDirectives(DIRECTIVE)) {
+                Argument argument = directive.getArgument(ARGUMENT);
+                if (argument != null && argument.getValue() instanceof StringValue value) {
+                    name = value.getValue();
+                }
+            }
+        }
+        if (name == null) {
+            return Optional.empty();
+        }
+        Permission permission = Permission.of(name);
+        if (permission == null) {
+            throw new IllegalStateException("unknown permission " + name + " on field " + field.getName());
+        }
+        return Optional.of(permission);
+    }
+}
@@ -0,0 +1,68 @@
+package com.sunsc.odokioa.custom;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.kickstart.execution.GraphQLRequest;
+import java.io.IOException;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+
+/**
+ * 只带 extensions.persistedQuery 没有query的请求，把query填成占位符，
+ * 否则ExecutionInput不接受空的query，请求到不了 {@link CachingPreparsedDocumentProvider}
+ * <p>
+ * kickstart用的是spring的ObjectMapper，注册为bean即生效
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Component
+public class PersistedQueryModule extends SimpleModule {
+
+    private static final String PERSISTED_QUERY = "persistedQuery";
+
+    public PersistedQueryModule() {
+        super(PersistedQueryModule.class.getSimpleName());
+        setDeserializerModifier(new BeanDeserializerModifier() {
+            @Override
+            public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription beanDesc,
+                                                          JsonDeserializer<?> deserializer) {
+                if (GraphQLRequest.class.equals(beanDesc.getBeanClass())) {
+                    return new PersistedQueryDeserializer(deserializer);
+                }
+                return deserializer;
+            }
+        });
+    }
+
+    private static class PersistedQueryDeserializer extends DelegatingDeserializer {
+
+        PersistedQueryDeserializer(JsonDeserializer<?> delegatee) {
+            super(delegatee);
+        }
+
+        @Override
+        protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> newDelegatee) {
+            return new PersistedQueryDeserializer(newDelegatee);
+        }
+
+        @Override
+        public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            Object value = super.deserialize(p, ctxt);
+            if (value instanceof GraphQLRequest request && request.getQuery() == null) {
+                Map<String, Object> extensions = request.getExtensions();
+                if (extensions != null && extensions.get(PERSISTED_QUERY) instanceof Map) {
+                    request.setQuery(PersistedQuerySupport.PERSISTED_QUERY_MARKER);
+                }
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.sunsc.odokioa.custom;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * 读写分离数据源：{@link DataSourceRoute#isReadOnly()} 时在健康的从库间轮询，其余情况走主库
+ * <p>
+ * 从库的健康状态由 {@link #checkReplicas()} 定期刷新，不健康的从库不参与路由，全部不健康时读也走主库
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA_PREFIX = "replica-";
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final int validationTimeoutSeconds;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    private volatile List<String> healthyReplicas;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, int validationTimeoutSeconds) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(REPLICA_PREFIX + i, replicas.get(i));
+            keys.add(REPLICA_PREFIX + i);
+        }
+        this.healthyReplicas = List.copyOf(keys);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!DataSourceRoute.isReadOnly()) {
+            return PRIMARY;
+        }
+        List<String> healthy = healthyReplicas;
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(counter.getAndIncrement(), healthy.size()));
+    }
+
+    /**
+     * 逐个校验从库连接，刷新可路由的从库列表
+     */
+    public void checkReplicas() {
+        List<String> healthy = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = REPLICA_PREFIX + i;
+            boolean valid = isValid(replicas.get(i));
+            if (valid) {
+                healthy.add(key);
+            }
+            if (valid != healthyReplicas.contains(key)) {
+                log.warn("{} is {}", key, valid ? "back to healthy" : "unhealthy, reads fall back to other replicas");
+            }
+        }
+        this.healthyReplicas = List.copyOf(healthy);
+    }
+
+    /**
+     * @return 当前可路由的从库个数
+     */
+    public int healthyReplicaCount() {
+        return healthyReplicas.size();
+    }
+
+    /**
+     * 替换了自动配置的数据源bean，关闭时连同主库和各从库的连接池一起关闭
+     */
+    @Override
+    public void close() {
+        for (DataSource replica : replicas) {
+            closeQuietly(replica);
+        }
+        closeQuietly(primary);
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("failed to close {}", dataSource, e);
+            }
+        }
+    }
+
+    private boolean isValid(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.sunsc.odokioa.custom;
+
+import com.sunsc.odokioa.config.AuthProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * 识别请求的当前用户
+ * <p>
+ * 用户由网关认证后通过 {@value PermissionInstrumentation#USER_ID_HEADER} 请求头传入，
+ * 请求头谁都能带，只有直接来自 odoki.auth.trusted-proxies 的请求才采信，其他请求视为匿名用户。
+ * 客户端地址同理，只有经过受信任网关时才采信 {@value #FORWARDED_FOR_HEADER}
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Component
+public class RequestUserResolver {
+
+    public static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    private final List<Cidr> trustedProxies = new ArrayList<>();
+
+    public RequestUserResolver(AuthProperties properties) {
+        for (String proxy : properties.getTrustedProxies()) {
+            trustedProxies.add(Cidr.parse(proxy));
+        }
+    }
+
+    /**
+     * @return 已认证的用户id，匿名时为null
+     */
+    public String userIdOf(HttpServletRequest request) {
+        String userId = request.getHeader(PermissionInstrumentation.USER_ID_HEADER);
+        if (!StringUtils.hasText(userId) || !isTrusted(request.getRemoteAddr())) {
+            return null;
+        }
+        return userId;
+    }
+
+    /**
+     * 请求经过受信任网关时，从 {@value #FORWARDED_FOR_HEADER} 的最右边往左跳过受信任的地址，第一个不受信任的就是客户端；
+     * 再往左的地址是客户端自己填的，不能用
+     *
+     * @return 客户端地址，没有经过受信任网关时为对端地址
+     */
+    public String clientAddressOf(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (!isTrusted(remoteAddr)) {
+            return remoteAddr;
+        }
+        List<String> forwarded = new ArrayList<>();
+        Enumeration<String> headers = request.getHeaders(FORWARDED_FOR_HEADER);
+        while (headers != null && headers.hasMoreElements()) {
+            for (String address : headers.nextElement().split(",")) {
+                if (!address.isBlank()) {
+                    forwarded.add(address.trim());
+                }
+            }
+        }
+        String client = remoteAddr;
+        for (int i = forwarded.size() - 1; i >= 0; i--) {
+            client = forwarded.get(i);
+            if (!isTrusted(client)) {
+                break;
+            }
+        }
+        return client;
+    }
+
+    /**
+     * @param remoteAddr 对端IP
+     * @return 是否来自受信任的网关
+     */
+    public boolean isTrusted(String remoteAddr) {
+        if (trustedProxies.isEmpty() || !StringUtils.hasText(remoteAddr)) {
+            return false;
+        }
+        byte[] address;
+        try {
+            // 对端地址总是IP字面量，不会触发DNS查询
+            address = InetAddress.getByName(remoteAddr).getAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+        for (Cidr proxy : trustedProxies) {
+            if (proxy.contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param network 网络地址
+     * @param bits    前缀长度
+     */
+    private record Cidr(byte[] network, int bits) {
+
+        static Cidr parse(String value) {
+            int slash = value.indexOf('/');
+            String host = slash < 0 ? value : value.substring(0, slash);
+            // 只接受IP字面量，主机名要查DNS，结果也可能变
+            boolean literal = host.indexOf(':') >= 0
+                    ? host.chars().allMatch(c -> Character.digit(c, 16) >= 0 || c == ':' || c == '.')
+                    : !host.isEmpty() && host.chars().allMatch(c -> (c >= '0' && c <= '9') || c == '.');
+            if (!literal) {
+                throw new IllegalArgumentException("trusted proxy must be an IP or CIDR: " + value);
+            }
+            byte[] network;
+            try {
+                network = InetAddress.getByName(host).getAddress();
+            } catch (UnknownHostException e) {
+                throw new IllegalArgumentException("trusted proxy must be an IP or CIDR: " + value, e);
+            }
+            int bits = slash < 0 ? network.length * 8 : Integer.parseInt(value.substring(slash + 1));
+            if (bits < 0 || bits > network.length * 8) {
+                throw new IllegalArgumentException("invalid prefix length: " + value);
+            }
+            return new Cidr(network, bits);
+        }
+
+        boolean contains(byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            int full = bits / 8;
+            for (int i = 0; i < full; i++) {
+                if (address[i] != network[i]) {
+                    return false;
+                }
+            }
+            int rest = bits % 8;
+            if (rest == 0) {
+                return true;
+            }
+            int mask = 0xFF << (8 - rest);
+            return (address[full] & mask) == (network[full] & mask);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.sunsc.odokioa.custom;
+
+import com.sunsc.odokioa.config.ResultCacheProperties;
+import com.sunsc.odokioa.service.TableVersions;
+import graphql.ExecutionResult;
+import graphql.GraphQLContext;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.language.Field;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 判断本次执行的结果能否进入结果缓存：只有query、顶层字段都在白名单内且没有错误的结果才缓存。
+ * 能缓存时在graphql上下文中记下执行开始前的表版本号，并记录执行期间读过的表({@link TableReads})，
+ * 结果只带这些表执行前的版本号入缓存，别的表上的写入不影响它；
+ * 执行期间有写入时版本号已经变了，缓存项下次读取即失效，不会把旧数据当成新版本。
+ * 读取的表只在执行线程同步执行期间记录，异步线程上查询的字段不能加入可缓存字段
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Component
+@ConditionalOnProperty(prefix = "odoki.result-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ResultCacheInstrumentation implements Instrumentation {
+
+    /**
+     * graphql上下文中执行前表版本号的key
+     */
+    public static final String VERSIONS = ResultCacheInstrumentation.class.getName() + ".versions";
+
+    /**
+     * graphql上下文中执行期间读过的表的key
+     */
+    private static final String TABLES = ResultCacheInstrumentation.class.getName() + ".tables";
+
+    private static final String TYPENAME = "__typename";
+
+    private final ResultCacheProperties properties;
+
+    private final TableVersions tableVersions;
+
+    public ResultCacheInstrumentation(ResultCacheProperties properties, TableVersions tableVersions) {
+        this.properties = properties;
+        this.tableVersions = tableVersions;
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        ExecutionContext executionContext = parameters.getExecutionContext();
+        if (!isCacheable(executionContext.getOperationDefinition())) {
+            return SimpleInstrumentationContext.noOp();
+        }
+        Set<String> tables = ConcurrentHashMap.newKeySet();
+        executionContext.getGraphQLContext().put(VERSIONS, tableVersions.snapshot());
+        executionContext.getGraphQLContext().put(TABLES, tables);
+        TableReads.collect(tables);
+        return SimpleInstrumentationContext.whenDispatched(result -> TableReads.clear());
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> instrumentExecutionResult(ExecutionResult executionResult,
+                                                                        InstrumentationExecutionParameters parameters,
+                                                                        InstrumentationState state) {
+        GraphQLContext context = parameters.getGraphQLContext();
+        Map<String, Long> versions = context.get(VERSIONS);
+        Set<String> tables = context.get(TABLES);
+        if (versions != null) {
+            if (!executionResult.getErrors().isEmpty() || tables.contains(TableReads.UNKNOWN)) {
+                context.delete(VERSIONS);
+            } else {
+                context.put(VERSIONS, readVersions(versions, tables));
+            }
+        }
+        return CompletableFuture.completedFuture(executionResult);
+    }
+
+    /**
+     * @return 读过的表在执行前的版本号，从没写过的表为0
+     */
+    private static Map<String, Long> readVersions(Map<String, Long> versions, Set<String> tables) {
+        Map<String, Long> read = new HashMap<>(tables.size() * 2);
+        for (String table : tables) {
+            read.put(table, versions.getOrDefault(table, 0L));
+        }
+        return Map.copyOf(read);
+    }
+
+    private boolean isCacheable(OperationDefinition operation) {
+        if (operation.getOperation() != OperationDefinition.Operation.QUERY) {
+            return false;
+        }
+        for (Selection<?> selection : operation.getSelectionSet().getSelections()) {
+            if (!(selection instanceof Field field)
+                    || !(TYPENAME.equals(field.getName()) || properties.getCacheableFields().contains(field.getName()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
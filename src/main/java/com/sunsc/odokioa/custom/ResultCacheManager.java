@@ -0,0 +1,283 @@
+package com.sunsc.odokioa.custom;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sunsc.odokioa.config.ResultCacheProperties;
+import com.sunsc.odokioa.service.PermissionService;
+import com.sunsc.odokioa.service.TableVersions;
+import graphql.ExecutionInput;
+import graphql.GraphQLContext;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.kickstart.execution.input.GraphQLInvocationInput;
+import graphql.kickstart.execution.input.GraphQLSingleInvocationInput;
+import graphql.kickstart.servlet.cache.CachedResponse;
+import graphql.kickstart.servlet.cache.GraphQLResponseCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+/**
+ * graphql查询结果缓存，缓存的是序列化好的响应体，命中时不执行查询也不再序列化
+ * <p>
+ * key为规范化后的查询文本(去掉注释、多余空白和逗号)加操作名、按key排序的变量和当前用户的权限集合，
+ * 权限相同的用户共用缓存，没有权限的用户不会命中有权限用户的结果。
+ * 缓存项带着执行时读过的表在执行前的版本号，其中任一张表的当前版本号不一致即失效，没读过的表上的写入不影响它。
+ * 响应带ETag，请求的If-None-Match与仍然有效的缓存项一致时返回304，不带响应体
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Component
+@ConditionalOnProperty(prefix = "odoki.result-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ResultCacheManager implements GraphQLResponseCacheManager {
+
+    /**
+     * graphql上下文中本次请求的缓存key
+     */
+    private static final String KEY = ResultCacheManager.class.getName() + ".key";
+
+    /**
+     * graphql上下文中本次响应的ETag
+     */
+    private static final String ETAG = ResultCacheManager.class.getName() + ".etag";
+
+    private static final String ANY_ETAG = "*";
+
+    private static final String ANONYMOUS_QUERY = "query{";
+
+    private final Cache<String, Entry> cache;
+
+    private final TableVersions tableVersions;
+
+    private final PermissionService permissionService;
+
+    private final ObjectWriter variablesWriter;
+
+    /**
+     * 版本号在重启后从0开始，ETag带上进程启动时间，避免重启前后的ETag撞上
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    public ResultCacheManager(ResultCacheProperties properties, TableVersions tableVersions,
+                              PermissionService permissionService, ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.tableVersions = tableVersions;
+        this.permissionService = permissionService;
+        this.variablesWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.cache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumSize().toBytes())
+                .<String, Entry>weigher((key, entry) -> key.length() + entry.body().length)
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build(), "graphql.results");
+    }
+
+    @Override
+    public CachedResponse get(HttpServletRequest request, GraphQLInvocationInput invocationInput) {
+        ExecutionInput executionInput = executionInput(invocationInput);
+        if (executionInput == null) {
+            return null;
+        }
+        String key = key(executionInput);
+        executionInput.getGraphQLContext().put(KEY, key);
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!isCurrent(entry.versions())) {
+            cache.asMap().remove(key, entry);
+            return null;
+        }
+        HttpServletResponse response = executionInput.getGraphQLContext().get(HttpServletResponse.class);
+        response.setHeader(HttpHeaders.ETAG, entry.etag());
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), entry.etag())) {
+            return CachedResponse.ofError(HttpServletResponse.SC_NOT_MODIFIED, null);
+        }
+        return CachedResponse.ofContent(entry.body());
+    }
+
+    /**
+     * 在写响应之前调用，此时执行已经结束，能缓存时顺便写上ETag头
+     */
+    @Override
+    public boolean isCacheable(HttpServletRequest request, GraphQLInvocationInput invocationInput) {
+        ExecutionInput executionInput = executionInput(invocationInput);
+        if (executionInput == null) {
+            return false;
+        }
+        GraphQLContext context = executionInput.getGraphQLContext();
+        Map<String, Long> versions = context.get(ResultCacheInstrumentation.VERSIONS);
+        String key = context.get(KEY);
+        if (versions == null || key == null) {
+            return false;
+        }
+        long version = versions.values().stream().mapToLong(Long::longValue).sum();
+        String etag = '"' + epoch + '-' + sha256(key).substring(0, 16) + '-' + version + '"';
+        context.put(ETAG, etag);
+        HttpServletResponse response = context.get(HttpServletResponse.class);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        return true;
+    }
+
+    @Override
+    public void put(HttpServletRequest request, GraphQLInvocationInput invocationInput, CachedResponse cachedResponse) {
+        if (cachedResponse.isError()) {
+            return;
+        }
+        GraphQLContext context = executionInput(invocationInput).getGraphQLContext();
+        cache.put(context.get(KEY), new Entry(cachedResponse.getContentBytes(),
+                context.get(ResultCacheInstrumentation.VERSIONS), context.get(ETAG)));
+    }
+
+    /**
+     * @param versions 缓存项读过的表的版本号
+     * @return 这些表在缓存之后都没有写入
+     */
+    private boolean isCurrent(Map<String, Long> versions) {
+        Map<String, Long> current = tableVersions.snapshot();
+        for (Map.Entry<String, Long> version : versions.entrySet()) {
+            if (current.getOrDefault(version.getKey(), 0L).longValue() != version.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 批量请求不缓存
+     */
+    private static ExecutionInput executionInput(GraphQLInvocationInput invocationInput) {
+        return invocationInput instanceof GraphQLSingleInvocationInput single ? single.getExecutionInput() : null;
+    }
+
+    private String key(ExecutionInput executionInput) {
+        String query = executionInput.getQuery();
+        if (PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(query)) {
+            // 只带hash的持久化查询，以hash代替查询文本
+            query = "#persisted " + executionInput.getExtensions().get("persistedQuery");
+        } else {
+            query = normalize(query);
+        }
+        String operationName = executionInput.getOperationName();
+        String userId = executionInput.getGraphQLContext().get(PermissionInstrumentation.USER_ID);
+        try {
+            return (operationName == null ? "" : operationName) + '\n' + query + '\n'
+                    + variablesWriter.writeValueAsString(executionInput.getVariables()) + '\n'
+                    + permissionService.permissionsOf(userId);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("variables not serializable", e);
+        }
+    }
+
+    /**
+     * 去掉注释、逗号和不影响语义的空白，字符串字面量原样保留。
+     * 只在两个名字、数字之间保留一个空格，标点两侧的空白全部去掉
+     */
+    static String normalize(String query) {
+        StringBuilder out = new StringBuilder(query.length());
+        boolean space = false;
+        int i = 0;
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            if (c == '#') {
+                while (i < query.length() && query.charAt(i) != '\n' && query.charAt(i) != '\r') {
+                    i++;
+                }
+                space = true;
+            } else if (c == ',' || Character.isWhitespace(c) || c == '\uFEFF') {
+                i++;
+                space = true;
+            } else if (c == '"') {
+                int end = stringEnd(query, i);
+                out.append(query, i, end);
+                i = end;
+                space = false;
+            } else {
+                if (space && out.length() > 0 && isNameChar(out.charAt(out.length() - 1)) && isNameChar(c)) {
+                    out.append(' ');
+                }
+                out.append(c);
+                i++;
+                space = false;
+            }
+        }
+        // 没有名字和变量的query与简写形式 { ... } 等价
+        return out.indexOf(ANONYMOUS_QUERY) == 0 ? out.substring(ANONYMOUS_QUERY.length() - 1) : out.toString();
+    }
+
+    /**
+     * @return 从start开始的字符串字面量(含块字符串)结束后的下标
+     */
+    private static int stringEnd(String query, int start) {
+        if (query.startsWith("\"\"\"", start)) {
+            int i = start + 3;
+            while (i < query.length()) {
+                if (query.startsWith("\\\"\"\"", i)) {
+                    i += 4;
+                } else if (query.startsWith("\"\"\"", i)) {
+                    return i + 3;
+                } else {
+                    i++;
+                }
+            }
+            return i;
+        }
+        int i = start + 1;
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == '"' || c == '\n') {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return Math.min(i, query.length());
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(etag) || value.equals(ANY_ETAG)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(byte[] body, Map<String, Long> versions, String etag) {
+    }
+}
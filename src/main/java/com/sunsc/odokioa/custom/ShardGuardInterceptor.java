@@ -0,0 +1,59 @@
+package com.sunsc.odokioa.custom;
+
+import java.util.Arrays;
+import java.util.Set;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * 分片表的语句没有选分片时直接失败
+ * <p>
+ * 没有选分片的语句会落到默认库，默认库里没有分片表或者只有分片前的旧数据，查询结果是错的而不会报错。
+ * 服务里按id选分片或跨分片归并的方法都会先选好分片，这里拦下的是绕过这些方法的调用，
+ * 比如mybatis-plus继承来的lambdaQuery、saveBatch等
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class,
+                        BoundSql.class}),
+        @Signature(type = Executor.class, method = "queryCursor",
+                args = {MappedStatement.class, Object.class, RowBounds.class})
+})
+public class ShardGuardInterceptor implements Interceptor {
+
+    /**
+     * 分片表的mapper
+     */
+    private final Set<String> namespaces;
+
+    /**
+     * @param mappers 分片表的mapper
+     */
+    public ShardGuardInterceptor(Class<?>... mappers) {
+        this.namespaces = Set.of(Arrays.stream(mappers).map(Class::getName).toArray(String[]::new));
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        String id = statement.getId();
+        if (ShardRoute.current() == null && namespaces.contains(id.substring(0, id.lastIndexOf('.')))) {
+            throw new IllegalStateException("no shard selected for " + id);
+        }
+        return invocation.proceed();
+    }
+}
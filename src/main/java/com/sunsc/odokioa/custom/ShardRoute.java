@@ -0,0 +1,49 @@
+package com.sunsc.odokioa.custom;
+
+/**
+ * 分库路由
+ * <p>
+ * 当前线程指定了分片时，{@link ShardRoutingDataSource} 从该分片取连接，没有指定时走默认数据源。
+ * 连接在事务开始时就绑定了，需要在开启事务之前指定分片
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+public final class ShardRoute {
+
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private ShardRoute() {
+    }
+
+    /**
+     * 当前线程之后的查询走指定分片，关闭返回值时恢复原来的路由
+     *
+     * @param shard 分片序号
+     * @return 作用域
+     */
+    public static Scope use(int shard) {
+        Integer previous = SHARD.get();
+        SHARD.set(shard);
+        return () -> {
+            if (previous == null) {
+                SHARD.remove();
+            } else {
+                SHARD.set(previous);
+            }
+        };
+    }
+
+    /**
+     * @return 当前线程指定的分片，没有指定时为null
+     */
+    public static Integer current() {
+        return SHARD.get();
+    }
+
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,77 @@
+package com.sunsc.odokioa.custom;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * 分库数据源：{@link ShardRoute#current()} 指定了分片时路由到对应分片，其余情况走默认数据源
+ * <p>
+ * 只有user表分库，role、user_role等其他表仍在默认数据源上
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Slf4j
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final String DEFAULT = "default";
+    public static final String SHARD_PREFIX = "shard-";
+
+    private final DataSource defaultTarget;
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(DataSource defaultTarget, List<DataSource> shards) {
+        this.defaultTarget = defaultTarget;
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(DEFAULT, defaultTarget);
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(SHARD_PREFIX + i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(defaultTarget);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardRoute.current();
+        if (shard == null) {
+            return DEFAULT;
+        }
+        if (shard < 0 || shard >= shards.size()) {
+            throw new IllegalStateException("no such shard: " + shard + ", " + shards.size() + " configured");
+        }
+        return SHARD_PREFIX + shard;
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    /**
+     * 替换了原来的数据源bean，关闭时连同默认数据源和各分片的连接池一起关闭
+     */
+    @Override
+    public void close() {
+        for (DataSource shard : shards) {
+            closeQuietly(shard);
+        }
+        closeQuietly(defaultTarget);
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("failed to close {}", dataSource, e);
+            }
+        }
+    }
+}
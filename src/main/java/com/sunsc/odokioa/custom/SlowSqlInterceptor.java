@@ -0,0 +1,93 @@
+package com.sunsc.odokioa.custom;
+
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+
+/**
+ * 慢SQL日志：超过阈值的语句全部记录，其余按比例抽样
+ * <p>
+ * 日志在单独的线程上输出，队列满了直接丢弃并计数(mybatis.slow.dropped)；
+ * 只输出带占位符的SQL和参数类型，不输出参数值
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Slf4j
+@Intercepts({
+        @Signature(type = StatementHandler.class, method = "query", args = {Statement.class, ResultHandler.class}),
+        @Signature(type = StatementHandler.class, method = "queryCursor", args = Statement.class),
+        @Signature(type = StatementHandler.class, method = "update", args = Statement.class),
+        @Signature(type = StatementHandler.class, method = "batch", args = Statement.class)
+})
+public class SlowSqlInterceptor implements Interceptor {
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final Executor logExecutor;
+    private final Counter dropped;
+
+    public SlowSqlInterceptor(long thresholdNanos, double sampleRate, Executor logExecutor,
+                              MeterRegistry meterRegistry) {
+        this.thresholdNanos = thresholdNanos;
+        this.sampleRate = sampleRate;
+        this.logExecutor = logExecutor;
+        this.dropped = Counter.builder("mybatis.slow.dropped")
+                .description("slow sql log entries dropped because the queue was full")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            boolean slow = elapsed >= thresholdNanos;
+            if (slow || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+                submit((StatementHandler) invocation.getTarget(), elapsed, slow);
+            }
+        }
+    }
+
+    private void submit(StatementHandler statementHandler, long elapsed, boolean slow) {
+        PluginUtils.MPStatementHandler handler = PluginUtils.mpStatementHandler(statementHandler);
+        String statement = handler.mappedStatement().getId();
+        BoundSql boundSql = handler.boundSql();
+        String sql = boundSql.getSql();
+        List<String> parameterTypes = new ArrayList<>(boundSql.getParameterMappings().size());
+        for (ParameterMapping mapping : boundSql.getParameterMappings()) {
+            parameterTypes.add(mapping.getJavaType() == null ? "?" : mapping.getJavaType().getSimpleName());
+        }
+        try {
+            logExecutor.execute(() -> {
+                long millis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+                String oneLine = sql.replaceAll("\\s+", " ");
+                if (slow) {
+                    log.warn("slow sql {}ms {}: {} parameters={}", millis, statement, oneLine, parameterTypes);
+                } else {
+                    log.info("sampled sql {}ms {}: {} parameters={}", millis, statement, oneLine, parameterTypes);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+        }
+    }
+}
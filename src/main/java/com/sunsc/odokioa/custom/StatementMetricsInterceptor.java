@@ -0,0 +1,81 @@
+package com.sunsc.odokioa.custom;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * 记录每个mapper方法的执行耗时和行数，指标名 mybatis.statement / mybatis.statement.rows，
+ * statement标签为MappedStatement的id，如 com.sunsc.odokioa.dao.UserMapper.selectList
+ * <p>
+ * 查询记返回条数，增删改记影响行数；批量执行器攒批时返回的不是行数，不记
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class,
+                        CacheKey.class, BoundSql.class})
+})
+public class StatementMetricsInterceptor implements Interceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, StatementMeters> meters = new ConcurrentHashMap<>();
+
+    public StatementMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        StatementMeters statementMeters = meters.computeIfAbsent(ms.getId(), this::register);
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } finally {
+            statementMeters.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (result instanceof Collection<?> rows) {
+            statementMeters.rows.record(rows.size());
+        } else if (result instanceof Integer rows && rows >= 0) {
+            statementMeters.rows.record(rows);
+        }
+        return result;
+    }
+
+    private StatementMeters register(String statement) {
+        Timer timer = Timer.builder("mybatis.statement")
+                .description("mybatis mapper statement latency")
+                .tag("statement", statement)
+                .register(meterRegistry);
+        DistributionSummary rows = DistributionSummary.builder("mybatis.statement.rows")
+                .description("rows returned or affected by mybatis mapper statement")
+                .tag("statement", statement)
+                .register(meterRegistry);
+        return new StatementMeters(timer, rows);
+    }
+
+    private record StatementMeters(Timer timer, DistributionSummary rows) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.sunsc.odokioa.custom;
+
+import java.util.Set;
+
+/**
+ * 记录当前线程上的查询读了哪些表
+ * <p>
+ * 结果缓存按本次操作读过的表判断缓存项是否过期，{@link TableVersionInterceptor} 在查询执行时记录SQL里的表，
+ * 读内存缓存、不发SQL的地方自己调用 {@link #record(String)}。
+ * 与 {@link DataSourceRoute} 一样只在执行线程同步执行期间有效
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+public final class TableReads {
+
+    /**
+     * 解析不出读了哪些表时记下的表名，带着它的结果不能缓存
+     */
+    public static final String UNKNOWN = "*";
+
+    private static final ThreadLocal<Set<String>> TABLES = new ThreadLocal<>();
+
+    private TableReads() {
+    }
+
+    /**
+     * 当前线程之后读到的表记到tables中
+     *
+     * @param tables 线程安全的集合
+     */
+    public static void collect(Set<String> tables) {
+        TABLES.set(tables);
+    }
+
+    /**
+     * 当前线程之后的读取不再记录
+     */
+    public static void clear() {
+        TABLES.remove();
+    }
+
+    /**
+     * @return 当前线程是否在记录读取的表，没有在记录时不必解析SQL
+     */
+    public static boolean isCollecting() {
+        return TABLES.get() != null;
+    }
+
+    /**
+     * @param table 表名
+     */
+    public static void record(String table) {
+        Set<String> tables = TABLES.get();
+        if (tables != null) {
+            tables.add(table);
+        }
+    }
+}
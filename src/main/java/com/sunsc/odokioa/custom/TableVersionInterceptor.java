@@ -0,0 +1,165 @@
+package com.sunsc.odokioa.custom;
+
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.sunsc.odokioa.service.TableVersions;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.util.TablesNamesFinder;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 增删改提交后递增所写表的版本号
+ * <p>
+ * 在spring事务中时，事务提交后每张表只加一次；不在事务中时记在执行器上，
+ * 等执行器commit后再加，批量执行器攒批期间数据还没落库，不能提前加。
+ * 表名按mapper的namespace从mybatis-plus的TableInfo中取。
+ * <p>
+ * 当前线程在记录读取的表({@link TableReads})时，查询前解析SQL，把FROM、JOIN和子查询中的表都记下，解析结果按SQL缓存
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class,
+                        BoundSql.class}),
+        @Signature(type = Executor.class, method = "commit", args = {boolean.class}),
+        @Signature(type = Executor.class, method = "rollback", args = {boolean.class})
+})
+public class TableVersionInterceptor implements Interceptor {
+
+    private static final int MAX_CACHED_STATEMENTS = 4096;
+
+    private final TableVersions tableVersions;
+
+    private final Map<String, String> namespaceTables = new ConcurrentHashMap<>();
+
+    /**
+     * SQL -> 读到的表
+     */
+    private final Map<String, Set<String>> readTables = new ConcurrentHashMap<>();
+
+    /**
+     * 非事务执行器上已写、未提交的表
+     */
+    private final Map<Object, Set<String>> pending = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public TableVersionInterceptor(TableVersions tableVersions) {
+        this.tableVersions = tableVersions;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if ("query".equals(invocation.getMethod().getName())) {
+            if (TableReads.isCollecting()) {
+                Object[] args = invocation.getArgs();
+                BoundSql boundSql = args.length > 5
+                        ? (BoundSql) args[5] : ((MappedStatement) args[0]).getBoundSql(args[1]);
+                readTablesOf(boundSql.getSql()).forEach(TableReads::record);
+            }
+            return invocation.proceed();
+        }
+        Object result = invocation.proceed();
+        Object executor = invocation.getTarget();
+        switch (invocation.getMethod().getName()) {
+            case "update" -> {
+                String table = tableOf((MappedStatement) invocation.getArgs()[0]);
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    transactionTables().add(table);
+                } else {
+                    pending.computeIfAbsent(executor, key -> new HashSet<>()).add(table);
+                }
+            }
+            case "commit" -> {
+                Set<String> tables = pending.remove(executor);
+                if (tables != null) {
+                    tables.forEach(tableVersions::bump);
+                }
+            }
+            default -> pending.remove(executor);
+        }
+        return result;
+    }
+
+    /**
+     * @return 当前事务写过的表，第一次写时注册提交回调
+     */
+    private Set<String> transactionTables() {
+        @SuppressWarnings("unchecked")
+        Set<String> tables = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (tables == null) {
+            Set<String> written = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, written);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TableVersionInterceptor.this);
+                    if (status == STATUS_COMMITTED) {
+                        written.forEach(tableVersions::bump);
+                    }
+                }
+            });
+            tables = written;
+        }
+        return tables;
+    }
+
+    private Set<String> readTablesOf(String sql) {
+        Set<String> tables = readTables.get(sql);
+        if (tables == null) {
+            if (readTables.size() >= MAX_CACHED_STATEMENTS) {
+                readTables.clear();
+            }
+            tables = parseTables(sql);
+            readTables.put(sql, tables);
+        }
+        return tables;
+    }
+
+    /**
+     * @return SQL中的表名，去掉库名和反引号；解析失败时为 {@link TableReads#UNKNOWN}
+     */
+    static Set<String> parseTables(String sql) {
+        try {
+            Set<String> tables = new HashSet<>();
+            for (String name : new TablesNamesFinder().getTableList(CCJSqlParserUtil.parse(sql))) {
+                String table = name.substring(name.lastIndexOf('.') + 1);
+                tables.add(table.startsWith("`") ? table.substring(1, table.length() - 1) : table);
+            }
+            return Set.copyOf(tables);
+        } catch (JSQLParserException e) {
+            return Set.of(TableReads.UNKNOWN);
+        }
+    }
+
+    private String tableOf(MappedStatement ms) {
+        String id = ms.getId();
+        String namespace = id.substring(0, id.lastIndexOf('.'));
+        return namespaceTables.computeIfAbsent(namespace, key -> TableInfoHelper.getTableInfos().stream()
+                .filter(tableInfo -> key.equals(tableInfo.getCurrentNamespace()))
+                .map(TableInfo::getTableName)
+                .findFirst()
+                .orElse(key));
+    }
+}
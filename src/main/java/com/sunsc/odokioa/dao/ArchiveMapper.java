@@ -0,0 +1,66 @@
+package com.sunsc.odokioa.dao;
+
+import java.util.List;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 逻辑删除数据归档，把 deleted = 1 的行搬到同结构的 表名_archive 表
+ * <p>
+ * 表名来自配置，不是用户输入；归档表结构见 db/archive-tables.sql
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Mapper
+@Repository
+public interface ArchiveMapper {
+
+    /**
+     * 按主键顺序找出一批待归档的行，从after之后接着扫，整轮归档只顺序扫一遍；
+     * 走 (deleted, id) 索引只扫已删除的行，见 db/archive-tables.sql
+     *
+     * @param table  表名
+     * @param before 删除时间早于此时间的才归档，毫秒时间戳；没有更新时间的按创建时间，都没有的视为很早以前删除
+     * @param after  上一批最后一个id，为空时从头开始
+     * @param limit  每批条数
+     * @return 待归档的id，升序
+     */
+    @Select("<script>"
+            + "SELECT id FROM ${table} WHERE deleted = 1 AND COALESCE(updateTime, createTime, 0) &lt; #{before}"
+            + "<if test='after != null'> AND id &gt; #{after}</if>"
+            + " ORDER BY id LIMIT #{limit}"
+            + "</script>")
+    List<String> selectDeletedIds(@Param("table") String table, @Param("before") long before,
+                                  @Param("after") String after, @Param("limit") int limit);
+
+    /**
+     * 锁住仍处于删除状态的行，避免归档过程中被恢复的行既进了归档表又留在原表
+     */
+    @Select("<script>"
+            + "SELECT id FROM ${table} WHERE deleted = 1 AND id IN"
+            + " <foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>"
+            + " FOR UPDATE"
+            + "</script>")
+    List<String> lockDeleted(@Param("table") String table, @Param("ids") List<String> ids);
+
+    /**
+     * 复制到归档表，归档表在原表的列之后多一列 archivedAt
+     */
+    @Insert("<script>"
+            + "INSERT INTO ${table}_archive SELECT t.*, #{archivedAt} FROM ${table} t WHERE t.id IN"
+            + " <foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>"
+            + "</script>")
+    int copyToArchive(@Param("table") String table, @Param("ids") List<String> ids,
+                      @Param("archivedAt") long archivedAt);
+
+    @Delete("<script>"
+            + "DELETE FROM ${table} WHERE id IN"
+            + " <foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>"
+            + "</script>")
+    int delete(@Param("table") String table, @Param("ids") List<String> ids);
+}
@@ -2,11 +2,28 @@ package com.sunsc.odokioa.dao;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.sunsc.odokioa.domain.Role;
+import com.sunsc.odokioa.domain.vo.UserRoleVo;
+import java.util.Collection;
+import java.util.List;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 import org.springframework.stereotype.Repository;
 
 @Mapper
 @Repository
 public interface RoleMapper extends BaseMapper<Role> {
 
+    /**
+     * 一次查出多个用户的角色
+     *
+     * @param userIds 用户id
+     * @return 角色，userId为所属用户
+     */
+    @Select("<script>"
+            + "SELECT m.userId, r.* FROM user_role m JOIN role r ON r.id = m.roleId"
+            + " WHERE m.deleted = 0 AND r.deleted = 0 AND m.userId IN"
+            + " <foreach collection='userIds' item='userId' open='(' separator=',' close=')'>#{userId}</foreach>"
+            + "</script>")
+    List<UserRoleVo> selectByUserIds(@Param("userIds") Collection<String> userIds);
 }
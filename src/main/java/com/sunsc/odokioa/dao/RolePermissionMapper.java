@@ -0,0 +1,20 @@
+package com.sunsc.odokioa.dao;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.sunsc.odokioa.domain.RolePermission;
+import java.util.List;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Select;
+import org.springframework.stereotype.Repository;
+
+@Mapper
+@Repository
+public interface RolePermissionMapper extends BaseMapper<RolePermission> {
+
+    /**
+     * @return 未删除角色的全部权限，只有roleId和permission
+     */
+    @Select("SELECT m.roleId, m.permission FROM role_permission m JOIN role r ON r.id = m.roleId"
+            + " WHERE m.deleted = 0 AND r.deleted = 0")
+    List<RolePermission> selectActive();
+}
@@ -3,10 +3,40 @@ package com.sunsc.odokioa.dao;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.sunsc.odokioa.domain.User;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 import org.springframework.stereotype.Repository;
 
 @Mapper
 @Repository
 public interface UserMapper extends BaseMapper<User> {
 
+    /**
+     * 流式读取全部用户的id、姓名、手机号，逐行回调，不在内存里攒整张表
+     * <p>
+     * fetchSize为 Integer.MIN_VALUE 时MySQL驱动逐行流式读取，不需要在连接串上开启 useCursorFetch，
+     * 其他语句仍走普通的客户端预处理；读取期间这个连接不能执行别的语句
+     *
+     * @param handler 每行回调一次
+     */
+    @Select("SELECT id, name, mobile FROM user WHERE deleted = 0")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(User.class)
+    void streamSearchFields(ResultHandler<User> handler);
+
+    /**
+     * 按id顺序游标读取全部用户，不含密码；需要在事务内遍历，遍历完才释放连接
+     * <p>
+     * 与 {@link #streamSearchFields} 一样逐行流式读取，主库、从库和分片的连接串都不需要额外参数
+     *
+     * @return 游标
+     */
+    @Select("SELECT id, code, name, mobile, avatar, gender, birthday, createTime, updateTime"
+            + " FROM user WHERE deleted = 0 ORDER BY id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<User> cursorAll();
 }
@@ -0,0 +1,12 @@
+package com.sunsc.odokioa.dao;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.sunsc.odokioa.domain.UserRole;
+import org.apache.ibatis.annotations.Mapper;
+import org.springframework.stereotype.Repository;
+
+@Mapper
+@Repository
+public interface UserRoleMapper extends BaseMapper<UserRole> {
+
+}
@@ -0,0 +1,24 @@
+package com.sunsc.odokioa.domain;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.sunsc.odokioa.common.BaseEntity;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 角色权限关联
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@TableName(value = "role_permission")
+@EqualsAndHashCode(callSuper = true)
+public class RolePermission extends BaseEntity {
+
+    private String roleId;
+    /**
+     * {@link com.sunsc.odokioa.enums.Permission} 的名称
+     */
+    private String permission;
+}
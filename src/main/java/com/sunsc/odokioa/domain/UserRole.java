@@ -0,0 +1,21 @@
+package com.sunsc.odokioa.domain;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.sunsc.odokioa.common.BaseEntity;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 用户角色关联
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@TableName(value = "user_role")
+@EqualsAndHashCode(callSuper = true)
+public class UserRole extends BaseEntity {
+
+    private String userId;
+    private String roleId;
+}
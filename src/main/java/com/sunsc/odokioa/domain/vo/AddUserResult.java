@@ -0,0 +1,22 @@
+package com.sunsc.odokioa.domain.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 批量创建用户的单行结果
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@AllArgsConstructor
+public class AddUserResult {
+    /**
+     * 对应入参的下标
+     */
+    private Integer index;
+    private String id;
+    private Integer respCode;
+    private String msg;
+}
@@ -0,0 +1,20 @@
+package com.sunsc.odokioa.domain.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 导入失败的行
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@AllArgsConstructor
+public class ImportError {
+    /**
+     * 在文件中的行号，从1开始，表头为第1行
+     */
+    private Integer line;
+    private String msg;
+}
@@ -0,0 +1,87 @@
+package com.sunsc.odokioa.domain.vo;
+
+import com.sunsc.odokioa.enums.ImportStatus;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+
+/**
+ * 用户导入任务进度，由导入线程更新，状态查询在其他线程读取
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Getter
+public class ImportJob {
+
+    private final String id;
+    private final String fileName;
+    private final long createTime = System.currentTimeMillis();
+    private final int maxErrorRows;
+
+    private volatile ImportStatus status = ImportStatus.PENDING;
+    private volatile Long startTime;
+    private volatile Long endTime;
+    private volatile long rowsRead;
+    private volatile long rowsInserted;
+    private volatile long rowsFailed;
+    private volatile String msg;
+
+    private final Queue<ImportError> errorRows = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger errorRowCount = new AtomicInteger();
+
+    public ImportJob(String id, String fileName, int maxErrorRows) {
+        this.id = id;
+        this.fileName = fileName;
+        this.maxErrorRows = maxErrorRows;
+    }
+
+    public void start() {
+        this.startTime = System.currentTimeMillis();
+        this.status = ImportStatus.RUNNING;
+    }
+
+    public void finish(ImportStatus status, String msg) {
+        this.endTime = System.currentTimeMillis();
+        this.msg = msg;
+        this.status = status;
+    }
+
+    public void rowRead() {
+        rowsRead++;
+    }
+
+    public void inserted(int rows) {
+        rowsInserted += rows;
+    }
+
+    /**
+     * 记录失败行，超过保留上限的只计数
+     */
+    public void failed(int line, String msg) {
+        rowsFailed++;
+        if (errorRowCount.getAndIncrement() < maxErrorRows) {
+            errorRows.add(new ImportError(line, msg));
+        }
+    }
+
+    /**
+     * @return 开始以来平均每秒处理的行数
+     */
+    public double getRowsPerSecond() {
+        Long start = startTime;
+        if (start == null) {
+            return 0;
+        }
+        Long end = endTime;
+        long elapsed = (end == null ? System.currentTimeMillis() : end) - start;
+        return elapsed <= 0 ? 0 : (rowsInserted + rowsFailed) * 1000.0 / elapsed;
+    }
+
+    public List<ImportError> getErrors() {
+        return new ArrayList<>(errorRows);
+    }
+}
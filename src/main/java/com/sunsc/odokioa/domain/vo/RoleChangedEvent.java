@@ -0,0 +1,23 @@
+package com.sunsc.odokioa.domain.vo;
+
+import com.sunsc.odokioa.domain.Role;
+import com.sunsc.odokioa.enums.ChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 角色变更事件
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@AllArgsConstructor
+public class RoleChangedEvent {
+    private ChangeType type;
+    private String id;
+    /**
+     * 变更后的角色，删除时为null
+     */
+    private Role role;
+}
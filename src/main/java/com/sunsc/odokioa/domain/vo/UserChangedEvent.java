@@ -0,0 +1,23 @@
+package com.sunsc.odokioa.domain.vo;
+
+import com.sunsc.odokioa.domain.User;
+import com.sunsc.odokioa.enums.ChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 用户变更事件
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@AllArgsConstructor
+public class UserChangedEvent {
+    private ChangeType type;
+    private String id;
+    /**
+     * 变更后的用户，不含密码；删除时为null
+     */
+    private User user;
+}
@@ -0,0 +1,18 @@
+package com.sunsc.odokioa.domain.vo;
+
+import com.sunsc.odokioa.domain.Role;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 带用户id的角色，用于按用户批量查询角色
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class UserRoleVo extends Role {
+
+    private String userId;
+}
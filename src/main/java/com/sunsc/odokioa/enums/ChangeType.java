@@ -0,0 +1,22 @@
+package com.sunsc.odokioa.enums;
+
+/**
+ * 数据变更类型
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+public enum ChangeType {
+    /**
+     * 新增
+     */
+    CREATED,
+    /**
+     * 修改
+     */
+    UPDATED,
+    /**
+     * 删除，事件里只有id
+     */
+    DELETED;
+}
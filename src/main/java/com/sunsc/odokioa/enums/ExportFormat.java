@@ -0,0 +1,34 @@
+package com.sunsc.odokioa.enums;
+
+/**
+ * 导出格式
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+public enum ExportFormat {
+    /**
+     * 每行一个JSON对象
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /**
+     * 逗号分隔，首行为表头
+     */
+    CSV("text/csv;charset=UTF-8", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,18 @@
+package com.sunsc.odokioa.enums;
+
+/**
+ * ObjectId主键的存储格式
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+public enum IdStorage {
+    /**
+     * 24位十六进制字符串
+     */
+    HEX,
+    /**
+     * 12字节BINARY(12)
+     */
+    BINARY;
+}
@@ -0,0 +1,26 @@
+package com.sunsc.odokioa.enums;
+
+/**
+ * 导入任务状态
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+public enum ImportStatus {
+    /**
+     * 排队中
+     */
+    PENDING,
+    /**
+     * 导入中
+     */
+    RUNNING,
+    /**
+     * 文件读完，错误行见任务的errors
+     */
+    FINISHED,
+    /**
+     * 文件无法解析等原因中止，已提交的批次不回滚
+     */
+    FAILED;
+}
@@ -0,0 +1,55 @@
+package com.sunsc.odokioa.enums;
+
+/**
+ * 权限点
+ * <p>
+ * 编译后的权限集合按 ordinal 取位，库里按名称存储；新增权限点只能追加，不能改名
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+public enum Permission {
+    /**
+     * 查看用户
+     */
+    USER_READ,
+    /**
+     * 新增、修改、删除用户
+     */
+    USER_WRITE,
+    /**
+     * 批量导入用户
+     */
+    USER_IMPORT,
+    /**
+     * 导出全部用户
+     */
+    USER_EXPORT,
+    /**
+     * 查看角色
+     */
+    ROLE_READ,
+    /**
+     * 新增、修改角色，给用户分配角色
+     */
+    ROLE_WRITE,
+    /**
+     * 给角色授予、收回权限
+     */
+    PERMISSION_GRANT;
+
+    private static final Permission[] VALUES = values();
+
+    /**
+     * @param name 权限名称
+     * @return 权限点，不存在时为null
+     */
+    public static Permission of(String name) {
+        for (Permission permission : VALUES) {
+            if (permission.name().equals(name)) {
+                return permission;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,43 @@
+package com.sunsc.odokioa.loader;
+
+import com.sunsc.odokioa.domain.Role;
+import com.sunsc.odokioa.service.RoleService;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * 每个请求新建一份DataLoader，合并同一请求内的关联查询
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Component
+public class DataLoaderRegistryFactory {
+
+    /**
+     * 用户id -> 角色
+     */
+    public static final String USER_ROLES = "userRoles";
+
+    private final RoleService roleService;
+
+    public DataLoaderRegistryFactory(RoleService roleService) {
+        this.roleService = roleService;
+    }
+
+    public DataLoaderRegistry create() {
+        DataLoaderRegistry registry = new DataLoaderRegistry();
+        registry.register(USER_ROLES, userRolesLoader());
+        return registry;
+    }
+
+    private DataLoader<String, List<Role>> userRolesLoader() {
+        // 在dispatch的请求线程上同步执行，不占用公共线程池
+        return DataLoaderFactory.newMappedDataLoader(
+                userIds -> CompletableFuture.completedFuture(roleService.mapByUserIds(userIds)));
+    }
+}
@@ -0,0 +1,32 @@
+package com.sunsc.odokioa.resolvers;
+
+import com.sunsc.odokioa.domain.vo.RoleChangedEvent;
+import com.sunsc.odokioa.domain.vo.UserChangedEvent;
+import com.sunsc.odokioa.service.ChangeEventService;
+import graphql.kickstart.tools.GraphQLSubscriptionResolver;
+import org.reactivestreams.Publisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户、角色变更订阅，通过websocket推送，替代轮询
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Component
+public class ChangeSubscriptionResolver implements GraphQLSubscriptionResolver {
+
+    private final ChangeEventService changeEventService;
+
+    public ChangeSubscriptionResolver(ChangeEventService changeEventService) {
+        this.changeEventService = changeEventService;
+    }
+
+    public Publisher<UserChangedEvent> userChanged(String id) {
+        return changeEventService.userChanges(id);
+    }
+
+    public Publisher<RoleChangedEvent> roleChanged(String id) {
+        return changeEventService.roleChanges(id);
+    }
+}
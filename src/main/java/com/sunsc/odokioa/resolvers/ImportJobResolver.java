@@ -0,0 +1,26 @@
+package com.sunsc.odokioa.resolvers;
+
+import com.sunsc.odokioa.domain.vo.ImportJob;
+import com.sunsc.odokioa.service.UserImportService;
+import graphql.kickstart.tools.GraphQLQueryResolver;
+import org.springframework.stereotype.Component;
+
+/**
+ * 导入任务进度查询
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Component
+public class ImportJobResolver implements GraphQLQueryResolver {
+
+    private final UserImportService userImportService;
+
+    public ImportJobResolver(UserImportService userImportService) {
+        this.userImportService = userImportService;
+    }
+
+    public ImportJob importJob(String id) {
+        return userImportService.getJob(id);
+    }
+}
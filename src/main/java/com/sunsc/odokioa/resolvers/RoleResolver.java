@@ -1,10 +1,17 @@
 package com.sunsc.odokioa.resolvers;
 
+import com.sunsc.odokioa.custom.PermissionInstrumentation;
 import com.sunsc.odokioa.domain.Role;
 import com.sunsc.odokioa.domain.vo.Result;
+import com.sunsc.odokioa.enums.Permission;
+import com.sunsc.odokioa.service.PermissionService;
 import com.sunsc.odokioa.service.RoleService;
+import com.sunsc.odokioa.util.Connections;
+import com.sunsc.odokioa.util.Projections;
 import graphql.kickstart.tools.GraphQLMutationResolver;
 import graphql.kickstart.tools.GraphQLQueryResolver;
+import graphql.relay.Connection;
+import graphql.schema.DataFetchingEnvironment;
 import java.util.List;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -19,19 +26,62 @@ public class RoleResolver implements GraphQLMutationResolver, GraphQLQueryResolv
 
     private final RoleService roleService;
 
-    public RoleResolver(RoleService roleService) {
+    private final PermissionService permissionService;
+
+    public RoleResolver(RoleService roleService, PermissionService permissionService) {
         this.roleService = roleService;
+        this.permissionService = permissionService;
     }
 
     public Result addRole(String name) {
-        Role role = new Role();
-        role.setName(name);
-        roleService.save(role);
+        roleService.addRole(name);
+        return new Result(200, "success");
+    }
+
+    public Result assignRole(String userId, String roleId) {
+        roleService.assignRole(userId, roleId);
+        return new Result(200, "success");
+    }
+
+    public Result grantPermission(String roleId, String permission) {
+        roleService.grantPermission(roleId, permission(permission));
+        return new Result(200, "success");
+    }
+
+    public Result revokePermission(String roleId, String permission) {
+        roleService.revokePermission(roleId, permission(permission));
         return new Result(200, "success");
     }
 
+    /**
+     * 当前用户的全部权限
+     */
+    public List<String> myPermissions(DataFetchingEnvironment env) {
+        String userId = env.getGraphQlContext().get(PermissionInstrumentation.USER_ID);
+        return permissionService.permissionsOf(userId).toList().stream().map(Permission::name).toList();
+    }
+
+    private static Permission permission(String name) {
+        Permission permission = Permission.of(name);
+        if (permission == null) {
+            throw new IllegalArgumentException("unknown permission: " + name);
+        }
+        return permission;
+    }
+
     public List<Role> roles() {
-        return roleService.list();
+        return roleService.listCached();
+    }
+
+    public Role role(String id) {
+        return roleService.getCachedById(id);
+    }
+
+    public Connection<Role> rolesConnection(Integer first, String after, DataFetchingEnvironment env) {
+        int size = Connections.pageSize(first);
+        String cursor = Connections.checkCursor(after);
+        List<String> columns = Projections.connectionColumns(env.getSelectionSet(), Role.class);
+        return Connections.of(roleService.listAfter(cursor, size + 1, columns), size, cursor != null);
     }
 
 }
@@ -1,15 +1,22 @@
 package com.sunsc.odokioa.resolvers;
 
-import com.sunsc.odokioa.common.Constants;
 import com.sunsc.odokioa.domain.User;
 import com.sunsc.odokioa.domain.vo.AddUserInput;
+import com.sunsc.odokioa.domain.vo.AddUserResult;
 import com.sunsc.odokioa.domain.vo.Result;
 import com.sunsc.odokioa.service.UserService;
+import com.sunsc.odokioa.util.Connections;
+import com.sunsc.odokioa.util.Projections;
 import graphql.kickstart.tools.GraphQLMutationResolver;
 import graphql.kickstart.tools.GraphQLQueryResolver;
+import graphql.relay.Connection;
+import graphql.schema.DataFetchingEnvironment;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.stereotype.Component;
 
 /**
@@ -28,21 +35,62 @@ public class UserResolver implements GraphQLMutationResolver, GraphQLQueryResolv
 
     private final UserService userService;
 
-    public User addUserByInput(AddUserInput user) {
+    public CompletableFuture<User> addUserByInput(AddUserInput user) {
         return userService.addUserByInput(user);
     }
 
-    public Result addUser(String mobile, String name) {
-        User user = new User();
-        user.setMobile(mobile);
-        user.setName(name);
-        user.setPassword(BCrypt.hashpw(Constants.DEFAULT_PASSWORD, BCrypt.gensalt()));
-        userService.save(user);
-        return new Result(200, "success");
+    public CompletableFuture<List<AddUserResult>> addUsers(List<AddUserInput> inputs) {
+        return userService.addUsers(inputs);
     }
 
-    public List<User> users() {
+    public CompletableFuture<Result> addUser(String mobile, String name) {
+        return userService.addUser(mobile, name).thenApply(user -> new Result(200, "success"));
+    }
+
+    public List<User> users(DataFetchingEnvironment env) {
         log.info("Query Resolver ==> users");
-        return userService.list();
+        return userService.listColumns(Projections.columns(env.getSelectionSet(), User.class));
+    }
+
+    public List<User> searchUsers(String prefix, Integer limit) {
+        return userService.search(prefix, Connections.pageSize(limit));
+    }
+
+    public Connection<User> usersConnection(Integer first, String after, DataFetchingEnvironment env) {
+        int size = Connections.pageSize(first);
+        String cursor = Connections.checkCursor(after);
+        List<String> columns = Projections.connectionColumns(env.getSelectionSet(), User.class);
+        return Connections.of(userService.listAfter(cursor, size + 1, columns), size, cursor != null);
+    }
+
+    /**
+     * 按创建时间窗口分页，from包含、to不包含
+     */
+    public Connection<User> usersCreatedBetween(String from, String to, Integer first, String after,
+                                                DataFetchingEnvironment env) {
+        Date start = parseTime("from", from);
+        Date end = parseTime("to", to);
+        if (!start.before(end)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        int size = Connections.pageSize(first);
+        String cursor = Connections.checkCursor(after);
+        List<String> columns = Projections.connectionColumns(env.getSelectionSet(), User.class);
+        return Connections.of(userService.listCreatedBetween(start, end, cursor, size + 1, columns),
+                size, cursor != null);
+    }
+
+    /**
+     * 时间参数接受毫秒时间戳，或带时区的ISO-8601时间，如 2026-10-16T08:00:00+08:00
+     */
+    private static Date parseTime(String name, String value) {
+        try {
+            if (value.chars().allMatch(Character::isDigit)) {
+                return new Date(Long.parseLong(value));
+            }
+            return Date.from(OffsetDateTime.parse(value).toInstant());
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("invalid " + name + ": " + value);
+        }
     }
 }
@@ -0,0 +1,26 @@
+package com.sunsc.odokioa.resolvers;
+
+import com.sunsc.odokioa.domain.Role;
+import com.sunsc.odokioa.domain.User;
+import com.sunsc.odokioa.loader.DataLoaderRegistryFactory;
+import graphql.kickstart.tools.GraphQLResolver;
+import graphql.schema.DataFetchingEnvironment;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.dataloader.DataLoader;
+import org.springframework.stereotype.Component;
+
+/**
+ * User.roles，经DataLoader合并为一次查询
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Component
+public class UserRolesResolver implements GraphQLResolver<User> {
+
+    public CompletableFuture<List<Role>> roles(User user, DataFetchingEnvironment env) {
+        DataLoader<String, List<Role>> loader = env.getDataLoader(DataLoaderRegistryFactory.USER_ROLES);
+        return loader.load(user.getId());
+    }
+}
@@ -0,0 +1,163 @@
+package com.sunsc.odokioa.service;
+
+import com.sunsc.odokioa.config.ArchiveProperties;
+import com.sunsc.odokioa.custom.ShardRoute;
+import com.sunsc.odokioa.dao.ArchiveMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 定时把逻辑删除超过保留期的行搬到归档表，让热表只留有效数据
+ * <p>
+ * 按主键顺序小批量搬运，每批一个事务；批与批之间停顿不少于上一批查找加搬运的耗时，
+ * 归档最多占一半的时间，数据库变慢时自动放慢。每轮有最长运行时间，没搬完的下一轮从头再扫
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Slf4j
+@Service
+public class ArchiveService {
+
+    private static final String USER_TABLE = "user";
+
+    private static final Pattern TABLE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private final ArchiveMapper archiveMapper;
+
+    private final ArchiveProperties properties;
+
+    private final ScheduledExecutorService archiveExecutor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    private final UserShards userShards;
+
+    private final Timer runTimer;
+
+    public ArchiveService(ArchiveMapper archiveMapper, ArchiveProperties properties,
+                          ScheduledExecutorService archiveExecutor, PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry, UserShards userShards) {
+        for (String table : properties.getTables()) {
+            if (!TABLE_NAME.matcher(table).matches()) {
+                throw new IllegalArgumentException("invalid archive table: " + table);
+            }
+        }
+        this.archiveMapper = archiveMapper;
+        this.properties = properties;
+        this.archiveExecutor = archiveExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.userShards = userShards;
+        this.runTimer = Timer.builder("archive.run")
+                .description("time spent per soft-delete archival run")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void schedule() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long interval = properties.getInterval().toMillis();
+        archiveExecutor.scheduleWithFixedDelay(this::archiveQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("soft-delete archival scheduled every {} for {}", properties.getInterval(), properties.getTables());
+    }
+
+    private void archiveQuietly() {
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            log.error("soft-delete archival failed", e);
+        }
+    }
+
+    /**
+     * 执行一轮归档
+     *
+     * @return 每张表本轮搬走的行数
+     */
+    public Map<String, Long> archive() {
+        long start = System.nanoTime();
+        long deadline = start + properties.getMaxRunTime().toNanos();
+        long before = System.currentTimeMillis() - properties.getRetention().toMillis();
+        Map<String, Long> moved = new LinkedHashMap<>();
+        try {
+            for (String table : properties.getTables()) {
+                moved.put(table, archiveShards(table, before, deadline));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long elapsed = System.nanoTime() - start;
+        runTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("soft-delete archival moved {} in {}ms{}", moved, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                System.nanoTime() > deadline ? ", stopped at max run time" : "");
+        return moved;
+    }
+
+    /**
+     * user表分库时逐个分片归档，其他表只在默认数据源上
+     */
+    private long archiveShards(String table, long before, long deadline) throws InterruptedException {
+        if (!USER_TABLE.equals(table)) {
+            return archiveTable(table, before, deadline);
+        }
+        long moved = 0;
+        for (int shard = 0; shard < userShards.count(); shard++) {
+            try (ShardRoute.Scope ignored = userShards.use(shard)) {
+                moved += archiveTable(table, before, deadline);
+            }
+        }
+        return moved;
+    }
+
+    private long archiveTable(String table, long before, long deadline) throws InterruptedException {
+        Counter rows = Counter.builder("archive.rows")
+                .description("soft-deleted rows moved to archive tables")
+                .tag("table", table)
+                .register(meterRegistry);
+        long moved = 0;
+        String after = null;
+        while (System.nanoTime() < deadline) {
+            // 找下一批的扫描也计入这一批的耗时
+            long batchStart = System.nanoTime();
+            List<String> ids = archiveMapper.selectDeletedIds(table, before, after, properties.getBatchSize());
+            if (ids.isEmpty()) {
+                break;
+            }
+            after = ids.get(ids.size() - 1);
+            Integer count = transactionTemplate.execute(status -> {
+                List<String> locked = archiveMapper.lockDeleted(table, ids);
+                if (locked.isEmpty()) {
+                    return 0;
+                }
+                archiveMapper.copyToArchive(table, locked, System.currentTimeMillis());
+                return archiveMapper.delete(table, locked);
+            });
+            moved += count;
+            rows.increment(count);
+            if (ids.size() < properties.getBatchSize()) {
+                break;
+            }
+            long pause = Math.max(properties.getPause().toNanos(), System.nanoTime() - batchStart);
+            TimeUnit.NANOSECONDS.sleep(pause);
+        }
+        return moved;
+    }
+}
@@ -0,0 +1,111 @@
+package com.sunsc.odokioa.service;
+
+import com.sunsc.odokioa.config.ChangeEventProperties;
+import com.sunsc.odokioa.domain.Role;
+import com.sunsc.odokioa.domain.User;
+import com.sunsc.odokioa.domain.vo.RoleChangedEvent;
+import com.sunsc.odokioa.domain.vo.UserChangedEvent;
+import com.sunsc.odokioa.enums.ChangeType;
+import com.sunsc.odokioa.util.EventBus;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.Executor;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 用户、角色变更事件，供 userChanged / roleChanged 订阅
+ * <p>
+ * 写入方发布一次，总线扇出到全部订阅者，事件自带变更后的数据，订阅者不需要再查库。
+ * 在事务中发布时等事务提交后再投递
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Service
+public class ChangeEventService {
+
+    private final EventBus<UserChangedEvent> userEvents;
+
+    private final EventBus<RoleChangedEvent> roleEvents;
+
+    public ChangeEventService(ChangeEventProperties properties,
+                              @Qualifier("changeEventExecutor") Executor changeEventExecutor,
+                              MeterRegistry meterRegistry) {
+        this.userEvents = new EventBus<>(UserChangedEvent::getId, properties.getBufferSize(), changeEventExecutor);
+        this.roleEvents = new EventBus<>(RoleChangedEvent::getId, properties.getBufferSize(), changeEventExecutor);
+        bindMetrics(meterRegistry, "user", userEvents);
+        bindMetrics(meterRegistry, "role", roleEvents);
+    }
+
+    private static void bindMetrics(MeterRegistry meterRegistry, String topic, EventBus<?> bus) {
+        Gauge.builder("events.subscribers", bus, EventBus::subscriberCount)
+                .tag("topic", topic)
+                .register(meterRegistry);
+        FunctionCounter.builder("events.dropped", bus, EventBus::droppedCount)
+                .tag("topic", topic)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param type CREATED或UPDATED
+     * @param user 变更后的用户
+     */
+    public void userChanged(ChangeType type, User user) {
+        User snapshot = new User();
+        BeanUtils.copyProperties(user, snapshot, "password");
+        UserChangedEvent event = new UserChangedEvent(type, user.getId(), snapshot);
+        afterCommit(() -> userEvents.publish(event));
+    }
+
+    public void userDeleted(String id) {
+        UserChangedEvent event = new UserChangedEvent(ChangeType.DELETED, id, null);
+        afterCommit(() -> userEvents.publish(event));
+    }
+
+    /**
+     * @param type CREATED或UPDATED
+     * @param role 变更后的角色
+     */
+    public void roleChanged(ChangeType type, Role role) {
+        RoleChangedEvent event = new RoleChangedEvent(type, role.getId(), role);
+        afterCommit(() -> roleEvents.publish(event));
+    }
+
+    public void roleDeleted(String id) {
+        RoleChangedEvent event = new RoleChangedEvent(ChangeType.DELETED, id, null);
+        afterCommit(() -> roleEvents.publish(event));
+    }
+
+    /**
+     * @param id 只订阅这个用户，为空时订阅全部
+     */
+    public Publisher<UserChangedEvent> userChanges(String id) {
+        return userEvents.subscribe(event -> id == null || id.equals(event.getId()));
+    }
+
+    /**
+     * @param id 只订阅这个角色，为空时订阅全部
+     */
+    public Publisher<RoleChangedEvent> roleChanges(String id) {
+        return roleEvents.subscribe(event -> id == null || id.equals(event.getId()));
+    }
+
+    private static void afterCommit(Runnable publish) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,175 @@
+package com.sunsc.odokioa.service;
+
+import com.sunsc.odokioa.common.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.stereotype.Service;
+
+/**
+ * 密码哈希服务，BCrypt在独立的有界线程池上计算，不占用请求线程
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Service
+public class PasswordService {
+
+    private static final String BUSY_MESSAGE = "password hashing is overloaded, please retry later";
+
+    /**
+     * 后台哈希遇到队列满时等待重试的间隔
+     */
+    private static final long BUSY_RETRY_MILLIS = 200;
+
+    private final ThreadPoolExecutor passwordHashExecutor;
+    private final Timer waitTimer;
+    private final Timer hashTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordService(ThreadPoolExecutor passwordHashExecutor, MeterRegistry meterRegistry) {
+        this.passwordHashExecutor = passwordHashExecutor;
+        this.waitTimer = Timer.builder("password.hash.wait")
+                .description("time a hash task spends queued")
+                .register(meterRegistry);
+        this.hashTimer = Timer.builder("password.hash.duration")
+                .description("time spent computing one bcrypt hash")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hash.rejected")
+                .description("hash tasks rejected because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.queue.size", passwordHashExecutor, e -> e.getQueue().size())
+                .description("hash tasks waiting in the queue")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.active", passwordHashExecutor, ThreadPoolExecutor::getActiveCount)
+                .description("threads currently hashing")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 异步哈希，队列满时立即失败
+     *
+     * @param rawPassword 明文密码
+     * @return 哈希结果，繁忙时以ServiceBusyException失败
+     */
+    public CompletableFuture<String> hashAsync(String rawPassword) {
+        try {
+            return CompletableFuture.supplyAsync(timed(() -> hash(rawPassword)), passwordHashExecutor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            return CompletableFuture.failedFuture(new ServiceBusyException(BUSY_MESSAGE));
+        }
+    }
+
+    /**
+     * 批量哈希，按线程数切片并行计算，调用线程不参与计算也不等待
+     *
+     * @param rawPasswords 明文密码
+     * @return 与入参顺序一致的哈希，队列已满时以ServiceBusyException失败
+     */
+    public CompletableFuture<List<String>> hashAllAsync(List<String> rawPasswords) {
+        int size = rawPasswords.size();
+        if (size == 0) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        int slices = Math.min(size, passwordHashExecutor.getMaximumPoolSize());
+        int sliceSize = (size + slices - 1) / slices;
+        List<CompletableFuture<List<String>>> futures = new ArrayList<>(slices);
+        try {
+            for (int from = 0; from < size; from += sliceSize) {
+                List<String> slice = rawPasswords.subList(from, Math.min(from + sliceSize, size));
+                futures.add(CompletableFuture.supplyAsync(timed(() -> hashSlice(slice)), passwordHashExecutor));
+            }
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            futures.forEach(future -> future.cancel(false));
+            return CompletableFuture.failedFuture(new ServiceBusyException(BUSY_MESSAGE));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<String> hashes = new ArrayList<>(size);
+            for (CompletableFuture<List<String>> future : futures) {
+                hashes.addAll(future.join());
+            }
+            return hashes;
+        });
+    }
+
+    /**
+     * 后台批量哈希，给导入这类不着急的调用方使用。
+     * 逐个提交，同时在途(执行中或排队)的任务不超过线程数减一，在线请求的哈希任务最多等一个正在算的哈希；
+     * 线程池只有一个线程时留不出空闲线程，只能保证每次只占一个。队列满时等一会儿再提交
+     *
+     * @param rawPasswords 明文密码
+     * @return 与入参顺序一致的哈希
+     * @throws InterruptedException 等待时被中断，已提交的任务会取消
+     */
+    public List<String> hashInBackground(List<String> rawPasswords) throws InterruptedException {
+        int permits = Math.max(1, passwordHashExecutor.getMaximumPoolSize() - 1);
+        Semaphore inFlight = new Semaphore(permits);
+        List<CompletableFuture<String>> futures = new ArrayList<>(rawPasswords.size());
+        try {
+            for (String rawPassword : rawPasswords) {
+                inFlight.acquire();
+                CompletableFuture<String> future = submitInBackground(rawPassword);
+                future.whenComplete((hash, e) -> inFlight.release());
+                futures.add(future);
+            }
+            // 拿回全部许可即全部完成
+            inFlight.acquire(permits);
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(false));
+            throw e;
+        }
+        List<String> hashes = new ArrayList<>(futures.size());
+        for (CompletableFuture<String> future : futures) {
+            hashes.add(future.join());
+        }
+        return hashes;
+    }
+
+    private CompletableFuture<String> submitInBackground(String rawPassword) throws InterruptedException {
+        while (true) {
+            try {
+                return CompletableFuture.supplyAsync(timed(() -> hash(rawPassword)), passwordHashExecutor);
+            } catch (RejectedExecutionException e) {
+                // 队列被在线请求占满，不计入拒绝数，等一会儿再试
+                Thread.sleep(BUSY_RETRY_MILLIS);
+            }
+        }
+    }
+
+    private <T> Supplier<T> timed(Supplier<T> task) {
+        long submitted = System.nanoTime();
+        return () -> {
+            waitTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+            return task.get();
+        };
+    }
+
+    private List<String> hashSlice(List<String> rawPasswords) {
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        for (String rawPassword : rawPasswords) {
+            hashes.add(hash(rawPassword));
+        }
+        return hashes;
+    }
+
+    private String hash(String rawPassword) {
+        long start = System.nanoTime();
+        try {
+            return BCrypt.hashpw(rawPassword, BCrypt.gensalt());
+        } finally {
+            hashTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.sunsc.odokioa.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.sunsc.odokioa.config.AuthProperties;
+import com.sunsc.odokioa.config.PermissionCacheProperties;
+import com.sunsc.odokioa.dao.RolePermissionMapper;
+import com.sunsc.odokioa.dao.UserRoleMapper;
+import com.sunsc.odokioa.domain.RolePermission;
+import com.sunsc.odokioa.domain.UserRole;
+import com.sunsc.odokioa.enums.Permission;
+import com.sunsc.odokioa.util.PermissionSet;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * 权限判断：每个用户的全部角色权限编译成一个 {@link PermissionSet} 缓存起来，
+ * 判断时只查缓存和做位运算，不访问数据库
+ * <p>
+ * 角色或角色权限变化时全部失效，用户的角色分配变化时只失效该用户。
+ * 请求是否放行由 {@link #isAllowed} 判断，没有开启 odoki.auth.enforce 时只计数不拦截
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Slf4j
+@Service
+public class PermissionService {
+
+    private static final String ALL = "all";
+
+    private final UserRoleMapper userRoleMapper;
+
+    private final RolePermissionMapper rolePermissionMapper;
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enforce;
+
+    /**
+     * 角色id -> 权限，只有一个key
+     */
+    private final LoadingCache<String, Map<String, PermissionSet>> roleCache;
+
+    /**
+     * 用户id -> 编译后的权限
+     */
+    private final LoadingCache<String, PermissionSet> userCache;
+
+    public PermissionService(UserRoleMapper userRoleMapper, RolePermissionMapper rolePermissionMapper,
+                             PermissionCacheProperties properties, AuthProperties authProperties,
+                             MeterRegistry meterRegistry) {
+        this.userRoleMapper = userRoleMapper;
+        this.rolePermissionMapper = rolePermissionMapper;
+        this.meterRegistry = meterRegistry;
+        this.enforce = authProperties.isEnforce();
+        this.roleCache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build(key -> loadRolePermissions()), "permissions.role");
+        this.userCache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build(this::compile), "permissions.user");
+    }
+
+    /**
+     * @param userId     用户id，为空时没有任何权限
+     * @param permission 权限点
+     * @return 用户是否有该权限
+     */
+    public boolean hasPermission(String userId, Permission permission) {
+        return permissionsOf(userId).has(permission);
+    }
+
+    /**
+     * 没有权限时按权限点计数，开启拦截前可以从计数看出哪些请求会被拒绝
+     *
+     * @param userId     用户id，为空时没有任何权限
+     * @param permission 权限点
+     * @return 是否放行，没有开启 odoki.auth.enforce 时总是放行
+     */
+    public boolean isAllowed(String userId, Permission permission) {
+        if (hasPermission(userId, permission)) {
+            return true;
+        }
+        meterRegistry.counter("permissions.denied", "permission", permission.name(),
+                "enforced", String.valueOf(enforce)).increment();
+        return !enforce;
+    }
+
+    /**
+     * @param userId 用户id，为空时没有任何权限
+     * @return 用户的全部权限，走缓存
+     */
+    public PermissionSet permissionsOf(String userId) {
+        if (userId == null || userId.isEmpty()) {
+            return PermissionSet.EMPTY;
+        }
+        return userCache.get(userId);
+    }
+
+    /**
+     * 用户的角色分配变化后调用
+     */
+    public void invalidateUser(String userId) {
+        userCache.invalidate(userId);
+    }
+
+    /**
+     * 角色或角色权限变化后调用
+     */
+    public void invalidateAll() {
+        roleCache.invalidateAll();
+        userCache.invalidateAll();
+    }
+
+    /**
+     * 合并用户所有角色的权限
+     */
+    private PermissionSet compile(String userId) {
+        Map<String, PermissionSet> rolePermissions = roleCache.get(ALL);
+        PermissionSet permissions = PermissionSet.EMPTY;
+        List<UserRole> userRoles = userRoleMapper.selectList(new LambdaQueryWrapper<UserRole>()
+                .select(UserRole::getRoleId)
+                .eq(UserRole::getUserId, userId));
+        for (UserRole userRole : userRoles) {
+            PermissionSet granted = rolePermissions.get(userRole.getRoleId());
+            if (granted != null) {
+                permissions = permissions.union(granted);
+            }
+        }
+        return permissions;
+    }
+
+    private Map<String, PermissionSet> loadRolePermissions() {
+        Map<String, List<Permission>> grouped = new HashMap<>();
+        for (RolePermission row : rolePermissionMapper.selectActive()) {
+            Permission permission = Permission.of(row.getPermission());
+            if (permission == null) {
+                log.warn("role {} has unknown permission {}, ignored", row.getRoleId(), row.getPermission());
+                continue;
+            }
+            grouped.computeIfAbsent(row.getRoleId(), k -> new ArrayList<>()).add(permission);
+        }
+        Map<String, PermissionSet> compiled = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((roleId, permissions) -> compiled.put(roleId, PermissionSet.of(EnumSet.copyOf(permissions))));
+        return Map.copyOf(compiled);
+    }
+}
@@ -1,8 +1,28 @@
 package com.sunsc.odokioa.service;
 
-import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.sunsc.odokioa.common.BaseService;
+import com.sunsc.odokioa.config.RoleCacheProperties;
+import com.sunsc.odokioa.custom.TableReads;
 import com.sunsc.odokioa.dao.RoleMapper;
+import com.sunsc.odokioa.dao.RolePermissionMapper;
+import com.sunsc.odokioa.dao.UserRoleMapper;
 import com.sunsc.odokioa.domain.Role;
+import com.sunsc.odokioa.domain.RolePermission;
+import com.sunsc.odokioa.domain.UserRole;
+import com.sunsc.odokioa.domain.vo.UserRoleVo;
+import com.sunsc.odokioa.enums.ChangeType;
+import com.sunsc.odokioa.enums.Permission;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.stereotype.Service;
 
 /**
@@ -10,6 +30,181 @@ import org.springframework.stereotype.Service;
  * @date 2023/3/17
  */
 @Service
-public class RoleService extends ServiceImpl<RoleMapper, Role> {
+public class RoleService extends BaseService<RoleMapper, Role> {
 
+    private static final String ALL = "all";
+
+    private static final String TABLE = "role";
+
+    private final UserRoleMapper userRoleMapper;
+
+    private final RolePermissionMapper rolePermissionMapper;
+
+    private final ChangeEventService changeEvents;
+
+    private final PermissionService permissionService;
+
+    /**
+     * 角色很少变化，全部角色、按id、按code各缓存一份，角色写入时全部失效。
+     * 命中时不发SQL，读取时自己记下读了role表，查询结果缓存据此失效
+     */
+    private final LoadingCache<String, List<Role>> allCache;
+    private final LoadingCache<String, Role> idCache;
+    private final LoadingCache<Long, Role> codeCache;
+
+    public RoleService(UserRoleMapper userRoleMapper, RolePermissionMapper rolePermissionMapper,
+                       ChangeEventService changeEvents, PermissionService permissionService,
+                       RoleCacheProperties properties, MeterRegistry meterRegistry) {
+        this.userRoleMapper = userRoleMapper;
+        this.rolePermissionMapper = rolePermissionMapper;
+        this.changeEvents = changeEvents;
+        this.permissionService = permissionService;
+        this.allCache = CaffeineCacheMetrics.monitor(meterRegistry,
+                newCache(properties, 1).build(key -> List.copyOf(this.list())), "roles.all");
+        this.idCache = CaffeineCacheMetrics.monitor(meterRegistry,
+                newCache(properties, properties.getMaximumSize()).build(this::getById), "roles.id");
+        this.codeCache = CaffeineCacheMetrics.monitor(meterRegistry,
+                newCache(properties, properties.getMaximumSize()).build(code -> this.lambdaQuery()
+                        .eq(Role::getCode, code)
+                        .last("limit 1")
+                        .one()), "roles.code");
+    }
+
+    private static Caffeine<Object, Object> newCache(RoleCacheProperties properties, long maximumSize) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats();
+    }
+
+    /**
+     * @return 全部角色，走缓存
+     */
+    public List<Role> listCached() {
+        TableReads.record(TABLE);
+        return allCache.get(ALL);
+    }
+
+    /**
+     * @param id 角色id
+     * @return 角色，走缓存，不存在时为null
+     */
+    public Role getCachedById(String id) {
+        TableReads.record(TABLE);
+        return idCache.get(id);
+    }
+
+    /**
+     * @param code 角色编码
+     * @return 角色，走缓存，不存在时为null
+     */
+    public Role getCachedByCode(Long code) {
+        TableReads.record(TABLE);
+        return codeCache.get(code);
+    }
+
+    public void addRole(String name) {
+        Role role = new Role();
+        role.setName(name);
+        this.save(role);
+        invalidateCache();
+        changeEvents.roleChanged(ChangeType.CREATED, role);
+    }
+
+    @Override
+    public boolean updateById(Role entity) {
+        boolean updated = super.updateById(entity);
+        invalidateCache();
+        if (updated) {
+            changeEvents.roleChanged(ChangeType.UPDATED, this.getById(entity.getId()));
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean removed = super.removeById(id);
+        invalidateCache();
+        if (removed) {
+            changeEvents.roleDeleted(id.toString());
+        }
+        return removed;
+    }
+
+    private void invalidateCache() {
+        allCache.invalidateAll();
+        idCache.invalidateAll();
+        codeCache.invalidateAll();
+        permissionService.invalidateAll();
+    }
+
+    /**
+     * 给用户分配角色
+     *
+     * @param userId 用户id
+     * @param roleId 角色id
+     */
+    public void assignRole(String userId, String roleId) {
+        UserRole userRole = new UserRole();
+        userRole.setUserId(userId);
+        userRole.setRoleId(roleId);
+        userRoleMapper.insert(userRole);
+        permissionService.invalidateUser(userId);
+    }
+
+    /**
+     * 给角色授予权限，已有时不重复插入
+     *
+     * @param roleId     角色id
+     * @param permission 权限点
+     */
+    public void grantPermission(String roleId, Permission permission) {
+        boolean exists = rolePermissionMapper.exists(new LambdaQueryWrapper<RolePermission>()
+                .eq(RolePermission::getRoleId, roleId)
+                .eq(RolePermission::getPermission, permission.name()));
+        if (!exists) {
+            RolePermission rolePermission = new RolePermission();
+            rolePermission.setRoleId(roleId);
+            rolePermission.setPermission(permission.name());
+            rolePermissionMapper.insert(rolePermission);
+        }
+        permissionService.invalidateAll();
+    }
+
+    /**
+     * 收回角色的权限
+     *
+     * @param roleId     角色id
+     * @param permission 权限点
+     */
+    public void revokePermission(String roleId, Permission permission) {
+        rolePermissionMapper.delete(new LambdaQueryWrapper<RolePermission>()
+                .eq(RolePermission::getRoleId, roleId)
+                .eq(RolePermission::getPermission, permission.name()));
+        permissionService.invalidateAll();
+    }
+
+    /**
+     * 批量查询用户的角色，单条SQL
+     *
+     * @param userIds 用户id
+     * @return 用户id -> 角色，没有角色的用户对应空列表
+     */
+    public Map<String, List<Role>> mapByUserIds(Collection<String> userIds) {
+        Map<String, List<Role>> result = new HashMap<>(userIds.size() * 2);
+        for (String userId : userIds) {
+            result.put(userId, new ArrayList<>());
+        }
+        if (userIds.isEmpty()) {
+            return result;
+        }
+        for (UserRoleVo role : this.baseMapper.selectByUserIds(userIds)) {
+            // 默认排序规则不区分大小写，大小写不同的id也会查出来，这样的行不属于请求的任何一个id
+            List<Role> roles = result.get(role.getUserId());
+            if (roles != null) {
+                roles.add(role);
+            }
+        }
+        return result;
+    }
 }
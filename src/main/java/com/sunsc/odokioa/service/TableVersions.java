@@ -0,0 +1,35 @@
+package com.sunsc.odokioa.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+
+/**
+ * 每张表的写入版本号，表上的写入提交后加一，查询结果缓存以此判断是否过期
+ * <p>
+ * 写远少于读，版本号整体是一个不可变的Map，写时复制，读取快照没有开销
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Component
+public class TableVersions {
+
+    private volatile Map<String, Long> versions = Map.of();
+
+    /**
+     * @param table 表名
+     */
+    public synchronized void bump(String table) {
+        Map<String, Long> next = new HashMap<>(versions);
+        next.merge(table, 1L, Long::sum);
+        versions = Map.copyOf(next);
+    }
+
+    /**
+     * @return 当前全部表的版本号，不可变
+     */
+    public Map<String, Long> snapshot() {
+        return versions;
+    }
+}
@@ -0,0 +1,221 @@
+package com.sunsc.odokioa.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sunsc.odokioa.common.Constants;
+import com.sunsc.odokioa.common.ServiceBusyException;
+import com.sunsc.odokioa.config.UserImportProperties;
+import com.sunsc.odokioa.domain.User;
+import com.sunsc.odokioa.domain.vo.ImportJob;
+import com.sunsc.odokioa.enums.ImportStatus;
+import com.sunsc.odokioa.util.CsvFormatException;
+import com.sunsc.odokioa.util.CsvReader;
+import com.sunsc.odokioa.util.ObjectId;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * 用户CSV导入
+ * <p>
+ * 上传的文件先落到临时文件，导入线程逐行解析，攒够一批后哈希密码(给在线请求留出哈希线程)、按分片批量插入，
+ * 内存里最多只有一批数据，与文件大小无关。
+ * CSV首行为表头，name、mobile必填，可选avatar、gender、birthday、password，password为空时使用默认密码
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Slf4j
+@Service
+public class UserImportService {
+
+    private static final String NAME = "name";
+    private static final String MOBILE = "mobile";
+    private static final String AVATAR = "avatar";
+    private static final String GENDER = "gender";
+    private static final String BIRTHDAY = "birthday";
+    private static final String PASSWORD = "password";
+
+    private final UserService userService;
+    private final PasswordService passwordService;
+    private final UserImportProperties properties;
+    private final ThreadPoolExecutor userImportExecutor;
+    private final Cache<String, ImportJob> jobs;
+
+    public UserImportService(UserService userService, PasswordService passwordService,
+                             UserImportProperties properties, ThreadPoolExecutor userImportExecutor) {
+        this.userService = userService;
+        this.passwordService = passwordService;
+        this.properties = properties;
+        this.userImportExecutor = userImportExecutor;
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getJobRetention())
+                .build();
+    }
+
+    /**
+     * 提交导入任务，立即返回
+     *
+     * @param file 上传的CSV，UTF-8编码
+     * @return 任务，之后按id查询进度
+     * @throws ServiceBusyException 排队的任务已满
+     */
+    public ImportJob submit(MultipartFile file) throws IOException {
+        Path temp = Files.createTempFile("user-import-", ".csv");
+        file.transferTo(temp);
+        ImportJob job = new ImportJob(ObjectId.nextHexString(), file.getOriginalFilename(),
+                properties.getMaxErrorRows());
+        jobs.put(job.getId(), job);
+        try {
+            userImportExecutor.execute(() -> run(job, temp));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.getId());
+            Files.deleteIfExists(temp);
+            throw new ServiceBusyException("too many import jobs, please retry later");
+        }
+        return job;
+    }
+
+    /**
+     * @param id 任务id
+     * @return 任务，不存在或已过期时为null
+     */
+    public ImportJob getJob(String id) {
+        return jobs.getIfPresent(id);
+    }
+
+    private void run(ImportJob job, Path file) {
+        job.start();
+        try (InputStream in = Files.newInputStream(file);
+             CsvReader reader = new CsvReader(new BufferedReader(
+                     new InputStreamReader(in, StandardCharsets.UTF_8)))) {
+            Map<String, Integer> header = header(reader.next());
+            List<User> users = new ArrayList<>(properties.getChunkSize());
+            List<Integer> lines = new ArrayList<>(properties.getChunkSize());
+            List<String> passwords = new ArrayList<>(properties.getChunkSize());
+            List<String> record;
+            while ((record = reader.next()) != null) {
+                if (isBlank(record)) {
+                    continue;
+                }
+                job.rowRead();
+                String name = field(record, header, NAME);
+                String mobile = field(record, header, MOBILE);
+                if (!StringUtils.hasText(name) || !StringUtils.hasText(mobile)) {
+                    job.failed(reader.getRecordLine(), "name and mobile are required");
+                    continue;
+                }
+                User user = new User();
+                user.setName(name);
+                user.setMobile(mobile);
+                user.setAvatar(field(record, header, AVATAR));
+                user.setGender(field(record, header, GENDER));
+                user.setBirthday(field(record, header, BIRTHDAY));
+                String password = field(record, header, PASSWORD);
+                users.add(user);
+                lines.add(reader.getRecordLine());
+                passwords.add(StringUtils.hasText(password) ? password : Constants.DEFAULT_PASSWORD);
+                if (users.size() >= properties.getChunkSize()) {
+                    insertChunk(job, users, lines, passwords);
+                }
+            }
+            insertChunk(job, users, lines, passwords);
+            job.finish(ImportStatus.FINISHED, null);
+        } catch (CsvFormatException e) {
+            log.warn("user import {} rejected: {}", job.getId(), e.getMessage());
+            job.finish(ImportStatus.FAILED, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            // 读临时文件或写库失败，异常里可能有路径和SQL，只记日志
+            log.error("user import {} failed", job.getId(), e);
+            job.finish(ImportStatus.FAILED, "import failed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(ImportStatus.FAILED, "interrupted");
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("can not delete {}", file, e);
+            }
+        }
+    }
+
+    /**
+     * 在哈希线程池上哈希这一批的密码，给在线请求留出线程，见 {@link PasswordService#hashInBackground}；
+     * 每个分片一个事务插入，插不进去的行记为错误行；处理完清空入参
+     */
+    private void insertChunk(ImportJob job, List<User> users, List<Integer> lines, List<String> passwords)
+            throws InterruptedException {
+        if (users.isEmpty()) {
+            return;
+        }
+        List<String> hashes = passwordService.hashInBackground(passwords);
+        ObjectId.Block ids = ObjectId.reserve(users.size());
+        Map<User, Integer> lineOf = new IdentityHashMap<>();
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setId(ids.nextHexString());
+            users.get(i).setPassword(hashes.get(i));
+            lineOf.put(users.get(i), lines.get(i));
+        }
+        int[] failed = new int[1];
+        userService.insertBatch(users, (group, e) -> {
+            log.warn("user import {} chunk starting at line {} failed", job.getId(), lineOf.get(group.get(0)), e);
+            for (User user : group) {
+                job.failed(lineOf.get(user), UserService.insertError(e));
+            }
+            failed[0] += group.size();
+        });
+        job.inserted(users.size() - failed[0]);
+        users.clear();
+        lines.clear();
+        passwords.clear();
+    }
+
+    private static Map<String, Integer> header(List<String> record) throws CsvFormatException {
+        if (record == null) {
+            throw new CsvFormatException("empty file");
+        }
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < record.size(); i++) {
+            header.put(record.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!header.containsKey(NAME) || !header.containsKey(MOBILE)) {
+            throw new CsvFormatException("header must contain name and mobile");
+        }
+        return header;
+    }
+
+    private static String field(List<String> record, Map<String, Integer> header, String column) {
+        Integer index = header.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static boolean isBlank(List<String> record) {
+        for (String field : record) {
+            if (!field.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,207 @@
+package com.sunsc.odokioa.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.sunsc.odokioa.custom.ShardRoute;
+import com.sunsc.odokioa.dao.UserMapper;
+import com.sunsc.odokioa.domain.User;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * 用户搜索索引，按姓名、手机号前缀联想
+ * <p>
+ * 有序map的key是检索词，value是命中的用户id，前缀查询即取key的一个区间。
+ * 姓名的每个后缀都建一个key，输入名字中间的字也能命中(如"小明"命中"李小明")，按字符处理，中文姓名不需要分词；
+ * 手机号只按前缀。
+ * 启动后流式读取全表建索引，之后由 {@link UserService} 的写操作增量维护。
+ * 建索引期间写操作动过的id记下来，流式读到的这些行可能是写之前的旧数据，直接跳过。
+ * 建好之前的查询直接走数据库，姓名和手机号都只按前缀匹配，姓名中间的字要等索引建好才能命中：
+ * 中间匹配在数据库里用不上索引，每次联想都要扫全表
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Slf4j
+@Component
+public class UserSearchIndex {
+
+    /**
+     * 姓名超过该长度的部分不建索引
+     */
+    private static final int MAX_NAME_LENGTH = 32;
+
+    private final UserMapper userMapper;
+
+    private final UserShards shards;
+
+    private final NavigableMap<String, Set<String>> postings = new ConcurrentSkipListMap<>();
+
+    /**
+     * 用户id -> 只含id、姓名、手机号的快照，查询结果直接取这里，不回表
+     */
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    /**
+     * 建索引期间被put/remove过的用户id，只在put、remove、load的同步块内读写
+     */
+    private final Set<String> touchedWhileLoading = new HashSet<>();
+
+    public UserSearchIndex(UserMapper userMapper, UserShards shards) {
+        this.userMapper = userMapper;
+        this.shards = shards;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        for (int shard = 0; shard < shards.count(); shard++) {
+            try (ShardRoute.Scope ignored = shards.use(shard)) {
+                userMapper.streamSearchFields(context -> putLoaded(context.getResultObject()));
+            }
+        }
+        synchronized (this) {
+            ready = true;
+            touchedWhileLoading.clear();
+        }
+        log.info("user search index loaded {} users in {}ms", users.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * @param prefix 姓名或手机号的前缀
+     * @param limit  最多返回条数
+     * @return 命中的用户，只有id、姓名、手机号
+     */
+    public List<User> search(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (!StringUtils.hasLength(key)) {
+            return new ArrayList<>();
+        }
+        if (!ready) {
+            return shards.gather(() -> userMapper.selectList(new QueryWrapper<User>()
+                    .select("id", "name", "mobile")
+                    .and(w -> w.likeRight("name", prefix).or().likeRight("mobile", prefix))
+                    .orderByAsc("id")
+                    .last("limit " + limit)), limit);
+        }
+        Set<String> ids = new LinkedHashSet<>();
+        for (Set<String> matched : postings.subMap(key, true, key + Character.MAX_VALUE, false).values()) {
+            for (String id : matched) {
+                ids.add(id);
+                if (ids.size() >= limit) {
+                    return toUsers(ids);
+                }
+            }
+        }
+        return toUsers(ids);
+    }
+
+    /**
+     * 新增或更新用户后调用，姓名、手机号变化时替换原来的索引
+     */
+    public synchronized void put(User user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        if (!ready) {
+            touchedWhileLoading.add(user.getId());
+        }
+        index(user);
+    }
+
+    /**
+     * 建索引时流式读到的行，读取之后被写过的用户以写入的为准
+     */
+    private synchronized void putLoaded(User user) {
+        if (user == null || user.getId() == null || touchedWhileLoading.contains(user.getId())) {
+            return;
+        }
+        index(user);
+    }
+
+    private void index(User user) {
+        User snapshot = new User();
+        snapshot.setId(user.getId());
+        snapshot.setName(user.getName());
+        snapshot.setMobile(user.getMobile());
+        User old = users.put(snapshot.getId(), snapshot);
+        if (old != null) {
+            unindex(old);
+        }
+        for (String key : keys(snapshot)) {
+            postings.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(snapshot.getId());
+        }
+    }
+
+    /**
+     * 删除用户后调用
+     */
+    public synchronized void remove(String id) {
+        if (!ready) {
+            touchedWhileLoading.add(id);
+        }
+        User old = users.remove(id);
+        if (old != null) {
+            unindex(old);
+        }
+    }
+
+    private void unindex(User user) {
+        for (String key : keys(user)) {
+            Set<String> ids = postings.get(key);
+            if (ids != null) {
+                ids.remove(user.getId());
+                if (ids.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+    }
+
+    private List<User> toUsers(Set<String> ids) {
+        List<User> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            User user = users.get(id);
+            if (user != null) {
+                result.add(user);
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> keys(User user) {
+        Set<String> keys = new LinkedHashSet<>();
+        String name = normalize(user.getName());
+        if (StringUtils.hasLength(name)) {
+            if (name.length() > MAX_NAME_LENGTH) {
+                name = name.substring(0, MAX_NAME_LENGTH);
+            }
+            for (int i = 0; i < name.length(); i = name.offsetByCodePoints(i, 1)) {
+                keys.add(name.substring(i));
+            }
+        }
+        String mobile = normalize(user.getMobile());
+        if (StringUtils.hasLength(mobile)) {
+            keys.add(mobile);
+        }
+        return keys;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
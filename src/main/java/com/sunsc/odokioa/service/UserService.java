@@ -1,28 +1,374 @@
 package com.sunsc.odokioa.service;
 
-import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.sunsc.odokioa.common.BaseService;
 import com.sunsc.odokioa.common.Constants;
+import com.sunsc.odokioa.common.ServiceBusyException;
+import com.sunsc.odokioa.config.GroupCommitProperties;
+import com.sunsc.odokioa.custom.ShardRoute;
 import com.sunsc.odokioa.dao.UserMapper;
 import com.sunsc.odokioa.domain.User;
 import com.sunsc.odokioa.domain.vo.AddUserInput;
+import com.sunsc.odokioa.domain.vo.AddUserResult;
+import com.sunsc.odokioa.enums.ChangeType;
+import com.sunsc.odokioa.util.GroupCommitter;
+import com.sunsc.odokioa.util.ObjectId;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.beans.BeanUtils;
-import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
 /**
  * 用户服务
+ * <p>
+ * user表按主键分片，单条读写先按id选分片，列表和分页查询跨分片归并，见 {@link UserShards}
  *
  * @author sunshaocong
  * @date 2023/3/16
  */
+@Slf4j
 @Service
-public class UserService extends ServiceImpl<UserMapper, User> {
+public class UserService extends BaseService<UserMapper, User> implements DisposableBean {
 
-    public User addUserByInput(AddUserInput user) {
+    private final PasswordService passwordService;
+
+    private final UserSearchIndex searchIndex;
+
+    private final ChangeEventService changeEvents;
+
+    private final UserShards shards;
+
+    private final PermissionService permissionService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    /**
+     * 哈希完成后的插入在独立的有界线程池上进行，不占用按核数配置的哈希线程，也不占用请求线程
+     */
+    private final ThreadPoolExecutor userInsertExecutor;
+
+    /**
+     * 开启合并提交时，单个用户的插入交给所在分片的committer攒批写入，否则为null
+     */
+    private final List<GroupCommitter<User>> groupCommitters;
+
+    public UserService(PasswordService passwordService, UserSearchIndex searchIndex, ChangeEventService changeEvents,
+                       UserShards shards, PermissionService permissionService,
+                       GroupCommitProperties groupCommitProperties, PlatformTransactionManager transactionManager,
+                       ThreadPoolExecutor userInsertExecutor) {
+        this.passwordService = passwordService;
+        this.searchIndex = searchIndex;
+        this.changeEvents = changeEvents;
+        this.shards = shards;
+        this.permissionService = permissionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.userInsertExecutor = userInsertExecutor;
+        if (groupCommitProperties.isEnabled()) {
+            List<GroupCommitter<User>> committers = new ArrayList<>(shards.count());
+            for (int i = 0; i < shards.count(); i++) {
+                int shard = i;
+                committers.add(new GroupCommitter<>("user-group-commit-" + shard,
+                        groupCommitProperties.getWindow(),
+                        groupCommitProperties.getMaxBatchSize(),
+                        groupCommitProperties.getQueueCapacity(),
+                        users -> {
+                            try (ShardRoute.Scope ignored = shards.use(shard)) {
+                                transactionTemplate.executeWithoutResult(
+                                        status -> this.saveBatch(users, Constants.INSERT_BATCH_SIZE));
+                            }
+                        },
+                        this::afterCreate,
+                        e -> new IllegalStateException(insertError(e))));
+            }
+            this.groupCommitters = committers;
+        } else {
+            this.groupCommitters = null;
+        }
+    }
+
+    public CompletableFuture<User> addUserByInput(AddUserInput user) {
         User needAddUser = new User();
         BeanUtils.copyProperties(user, needAddUser);
-        needAddUser.setPassword(BCrypt.hashpw(Constants.DEFAULT_PASSWORD, BCrypt.gensalt()));
-        this.baseMapper.insert(needAddUser);
-        return needAddUser;
+        return addUserWithDefaultPassword(needAddUser);
+    }
+
+    public CompletableFuture<User> addUser(String mobile, String name) {
+        User user = new User();
+        user.setMobile(mobile);
+        user.setName(name);
+        return addUserWithDefaultPassword(user);
+    }
+
+    /**
+     * 在哈希线程池上计算默认密码，在插入线程池上插入，开启合并提交时与并发的其他插入一起提交
+     */
+    private CompletableFuture<User> addUserWithDefaultPassword(User user) {
+        // 先定下id才能选分片
+        user.setId(ObjectId.nextHexString());
+        return passwordService.hashAsync(Constants.DEFAULT_PASSWORD).thenCompose(password -> {
+            user.setPassword(password);
+            if (groupCommitters != null) {
+                // 只是入队，不会阻塞哈希线程
+                return groupCommitters.get(shards.shardOf(user.getId())).submit(user);
+            }
+            return supplyInsert(() -> {
+                shards.onShardOf(user.getId(), () -> this.baseMapper.insert(user));
+                afterCreate(user);
+                return user;
+            });
+        });
+    }
+
+    /**
+     * 在插入线程池上执行，队列满时以ServiceBusyException失败
+     */
+    private <T> CompletableFuture<T> supplyInsert(Supplier<T> insert) {
+        try {
+            return CompletableFuture.supplyAsync(insert, userInsertExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new ServiceBusyException("write queue is full, please retry later"));
+        }
+    }
+
+    /**
+     * 按姓名或手机号前缀联想，走内存索引
+     *
+     * @param prefix 前缀
+     * @param limit  最多返回条数
+     * @return 只有id、姓名、手机号的用户
+     */
+    public List<User> search(String prefix, int limit) {
+        return searchIndex.search(prefix, limit);
+    }
+
+    /**
+     * 游标逐行遍历全部用户，内存占用与行数无关；分片依次遍历，每个分片内按id有序
+     *
+     * @param action 每个用户回调一次，在持有数据库连接的线程上执行
+     */
+    public void forEachUser(Consumer<User> action) {
+        for (int shard = 0; shard < shards.count(); shard++) {
+            try (ShardRoute.Scope ignored = shards.use(shard)) {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Cursor<User> cursor = this.baseMapper.cursorAll()) {
+                        cursor.forEach(action);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * 已分配id的用户按分片分组，每组一个事务批量插入；整组失败时逐条重试，只有真正插不进去的行失败。
+     * 插入成功的用户更新索引并发出事件
+     *
+     * @param users     待插入的用户，id已分配
+     * @param onFailure 插入失败的用户(重试后每次一个)和异常，其他用户不受影响
+     */
+    public void insertBatch(List<User> users, BiConsumer<List<User>, RuntimeException> onFailure) {
+        for (Map.Entry<Integer, List<User>> group : shards.groupByShard(users, User::getId).entrySet()) {
+            List<User> shardUsers = group.getValue();
+            try (ShardRoute.Scope ignored = shards.use(group.getKey())) {
+                try {
+                    transactionTemplate.executeWithoutResult(
+                            status -> this.saveBatch(shardUsers, Constants.INSERT_BATCH_SIZE));
+                } catch (RuntimeException e) {
+                    if (shardUsers.size() == 1) {
+                        onFailure.accept(shardUsers, e);
+                        continue;
+                    }
+                    log.warn("batch insert of {} users failed, retrying one by one", shardUsers.size(), e);
+                    insertOneByOne(shardUsers, onFailure);
+                    continue;
+                }
+            }
+            shardUsers.forEach(this::afterCreate);
+        }
+    }
+
+    /**
+     * 在当前分片上逐条插入，每条自成一个事务
+     */
+    private void insertOneByOne(List<User> users, BiConsumer<List<User>, RuntimeException> onFailure) {
+        for (User user : users) {
+            try {
+                this.baseMapper.insert(user);
+            } catch (RuntimeException e) {
+                onFailure.accept(List.of(user), e);
+                continue;
+            }
+            afterCreate(user);
+        }
+    }
+
+    /**
+     * 插入失败时返回给调用方的描述，不带SQL和表结构
+     */
+    static String insertError(RuntimeException e) {
+        return e instanceof DuplicateKeyException ? "user already exists" : "insert failed";
+    }
+
+    @Override
+    public List<User> listColumns(List<String> columns) {
+        return shards.gather(() -> this.list(select(columns).orderByAsc(ID_COLUMN)), 0);
+    }
+
+    @Override
+    public List<User> listAfter(String after, int limit, List<String> columns) {
+        return shards.gather(() -> super.listAfter(after, limit, columns), limit);
+    }
+
+    @Override
+    public List<User> listCreatedBetween(Date from, Date to, String after, int limit, List<String> columns) {
+        return shards.gather(() -> super.listCreatedBetween(from, to, after, limit, columns), limit);
+    }
+
+    @Override
+    public User getById(Serializable id) {
+        return shards.onShardOf(id.toString(), () -> super.getById(id));
+    }
+
+    @Override
+    public List<User> listByIds(Collection<? extends Serializable> idList) {
+        List<User> users = new ArrayList<>(idList.size());
+        for (Map.Entry<Integer, List<Serializable>> group
+                : shards.groupByShard(new ArrayList<Serializable>(idList), Object::toString).entrySet()) {
+            try (ShardRoute.Scope ignored = shards.use(group.getKey())) {
+                users.addAll(super.listByIds(group.getValue()));
+            }
+        }
+        return users;
+    }
+
+    /**
+     * 各分片的行数相加，{@link #count()} 也走这里
+     */
+    @Override
+    public long count(Wrapper<User> queryWrapper) {
+        long count = 0;
+        for (List<Long> shardCount : shards.scatter(() -> List.of(super.count(queryWrapper)))) {
+            count += shardCount.get(0);
+        }
+        return count;
+    }
+
+    /**
+     * 新用户插入提交后更新搜索索引并发出变更事件
+     */
+    void afterCreate(User user) {
+        searchIndex.put(user);
+        changeEvents.userChanged(ChangeType.CREATED, user);
+    }
+
+    @Override
+    public boolean updateById(User entity) {
+        boolean updated = shards.onShardOf(entity.getId(), () -> super.updateById(entity));
+        if (updated) {
+            // 可能只更新了部分字段，重新读一次再建索引和发事件
+            User user = this.getById(entity.getId());
+            searchIndex.put(user);
+            changeEvents.userChanged(ChangeType.UPDATED, user);
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean removed = shards.onShardOf(id.toString(), () -> super.removeById(id));
+        searchIndex.remove(id.toString());
+        permissionService.invalidateUser(id.toString());
+        if (removed) {
+            changeEvents.userDeleted(id.toString());
+        }
+        return removed;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (groupCommitters != null) {
+            for (GroupCommitter<User> committer : groupCommitters) {
+                committer.close();
+            }
+        }
+    }
+
+    /**
+     * 批量创建用户，密码在哈希线程池上并行计算，之后在插入线程池上按分片JDBC批量插入，
+     * 批量失败时逐条重试，错误只落在插不进去的行上；调用线程不等待
+     *
+     * @param inputs 用户
+     * @return 与入参顺序一致的结果
+     */
+    public CompletableFuture<List<AddUserResult>> addUsers(List<AddUserInput> inputs) {
+        if (inputs.size() > Constants.MAX_BATCH_ADD_USERS) {
+            throw new IllegalArgumentException("at most " + Constants.MAX_BATCH_ADD_USERS + " users per call");
+        }
+        AddUserResult[] results = new AddUserResult[inputs.size()];
+        List<Integer> indexes = new ArrayList<>(inputs.size());
+        List<User> users = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            AddUserInput input = inputs.get(i);
+            if (input == null || !StringUtils.hasText(input.getName()) || !StringUtils.hasText(input.getMobile())) {
+                results[i] = new AddUserResult(i, null, 400, "name and mobile are required");
+                continue;
+            }
+            User user = new User();
+            BeanUtils.copyProperties(input, user);
+            indexes.add(i);
+            users.add(user);
+        }
+        if (users.isEmpty()) {
+            return CompletableFuture.completedFuture(Arrays.asList(results));
+        }
+        return passwordService.hashAllAsync(Collections.nCopies(users.size(), Constants.DEFAULT_PASSWORD))
+                .thenCompose(hashes -> supplyInsert(() -> {
+                    // 一次性预留整批id，不必每行都去竞争全局计数器
+                    ObjectId.Block ids = ObjectId.reserve(users.size());
+                    for (int i = 0; i < users.size(); i++) {
+                        users.get(i).setId(ids.nextHexString());
+                        users.get(i).setPassword(hashes.get(i));
+                    }
+                    Map<User, String> errors = new IdentityHashMap<>();
+                    insertBatch(users, (failed, e) -> {
+                        log.error("batch insert {} users failed", failed.size(), e);
+                        failed.forEach(user -> errors.put(user, insertError(e)));
+                    });
+                    for (int i = 0; i < users.size(); i++) {
+                        int index = indexes.get(i);
+                        User user = users.get(i);
+                        results[index] = errors.containsKey(user)
+                                ? new AddUserResult(index, null, 500, errors.get(user))
+                                : new AddUserResult(index, user.getId(), 200, "success");
+                    }
+                    return Arrays.asList(results);
+                }));
     }
 }
@@ -0,0 +1,203 @@
+package com.sunsc.odokioa.service;
+
+import com.sunsc.odokioa.common.BaseEntity;
+import com.sunsc.odokioa.common.ServiceBusyException;
+import com.sunsc.odokioa.config.ShardingProperties;
+import com.sunsc.odokioa.custom.ShardRoute;
+import com.sunsc.odokioa.util.ObjectId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * user表分片：按主键哈希选分片，单条读写只落到一个分片；列表和分页查询在各分片并行执行，
+ * 再按主键(ObjectId按时间有序)多路归并
+ * <p>
+ * 没有配置分片时只有一个分片，查询直接在当前线程执行，走默认数据源
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Component
+public class UserShards {
+
+    private static final String BUSY_MESSAGE = "too many cross-shard queries, please retry later";
+
+    private final boolean sharded;
+
+    private final int count;
+
+    private final Executor executor;
+
+    public UserShards(ShardingProperties properties, ThreadPoolExecutor shardQueryExecutor) {
+        this.sharded = !properties.getShards().isEmpty();
+        this.count = Math.max(1, properties.getShards().size());
+        this.executor = shardQueryExecutor;
+    }
+
+    /**
+     * @return 分片数，没有配置分片时为1
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @param id 用户id
+     * @return 所在分片
+     */
+    public int shardOf(String id) {
+        return shardOf(id, count);
+    }
+
+    /**
+     * 时间戳段不参与哈希，同一秒创建的用户也能均匀分散；非ObjectId的历史id按字符串哈希
+     *
+     * @param id    用户id
+     * @param count 分片数
+     * @return 所在分片
+     */
+    public static int shardOf(String id, int count) {
+        long bits = ObjectId.isValid(id) ? Long.parseUnsignedLong(id.substring(8), 16) : id.hashCode();
+        // murmur3 fmix64
+        bits ^= bits >>> 33;
+        bits *= 0xff51afd7ed558ccdL;
+        bits ^= bits >>> 33;
+        bits *= 0xc4ceb9fe1a85ec53L;
+        bits ^= bits >>> 33;
+        return Math.floorMod(bits, count);
+    }
+
+    /**
+     * 当前线程之后的查询走指定分片，需要在开启事务之前调用
+     *
+     * @param shard 分片
+     * @return 作用域，关闭时恢复
+     */
+    public ShardRoute.Scope use(int shard) {
+        if (!sharded) {
+            return () -> {
+            };
+        }
+        return ShardRoute.use(shard);
+    }
+
+    /**
+     * 在id所在的分片上执行
+     */
+    public <T> T onShardOf(String id, Supplier<T> action) {
+        try (ShardRoute.Scope ignored = use(shardOf(id))) {
+            return action.get();
+        }
+    }
+
+    /**
+     * @return 分片 -> 落在该分片的数据，按分片序号排序，各组内保持原顺序
+     */
+    public <T> Map<Integer, List<T>> groupByShard(List<T> items, Function<T, String> idOf) {
+        Map<Integer, List<T>> groups = new TreeMap<>();
+        for (T item : items) {
+            groups.computeIfAbsent(shardOf(idOf.apply(item)), k -> new ArrayList<>()).add(item);
+        }
+        return groups;
+    }
+
+    /**
+     * 在每个分片上并行执行同一个查询，分片0在当前线程执行
+     *
+     * @param query 查询
+     * @return 按分片序号排列的各分片结果
+     * @throws ServiceBusyException 跨分片查询线程池已满
+     */
+    public <T> List<List<T>> scatter(Supplier<List<T>> query) {
+        if (count == 1) {
+            try (ShardRoute.Scope ignored = use(0)) {
+                return List.of(query.get());
+            }
+        }
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(count - 1);
+        try {
+            for (int shard = 1; shard < count; shard++) {
+                int target = shard;
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    try (ShardRoute.Scope ignored = ShardRoute.use(target)) {
+                        return query.get();
+                    }
+                }, executor));
+            }
+        } catch (RejectedExecutionException e) {
+            throw new ServiceBusyException(BUSY_MESSAGE);
+        }
+        List<List<T>> results = new ArrayList<>(count);
+        try (ShardRoute.Scope ignored = ShardRoute.use(0)) {
+            results.add(query.get());
+        }
+        try {
+            for (CompletableFuture<List<T>> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * 在每个分片上并行执行按主键升序的查询，归并成全局按主键升序的结果
+     *
+     * @param query 按主键升序、最多返回limit条的查询
+     * @param limit 最多返回条数，小于等于0时不限
+     * @return 按主键升序
+     */
+    public <T extends BaseEntity> List<T> gather(Supplier<List<T>> query, int limit) {
+        return mergeById(scatter(query), limit);
+    }
+
+    /**
+     * 多路归并各自按主键升序的结果
+     *
+     * @param sorted 各分片的结果
+     * @param limit  最多返回条数，小于等于0时不限
+     * @return 按主键升序
+     */
+    public static <T extends BaseEntity> List<T> mergeById(List<List<T>> sorted, int limit) {
+        if (sorted.size() == 1) {
+            List<T> only = sorted.get(0);
+            return limit > 0 && only.size() > limit ? new ArrayList<>(only.subList(0, limit)) : only;
+        }
+        int total = sorted.stream().mapToInt(List::size).sum();
+        int size = limit > 0 ? Math.min(limit, total) : total;
+        // {第几个分片, 该分片的下一条}
+        PriorityQueue<int[]> heads = new PriorityQueue<>(sorted.size(),
+                Comparator.comparing(head -> sorted.get(head[0]).get(head[1]).getId()));
+        for (int i = 0; i < sorted.size(); i++) {
+            if (!sorted.get(i).isEmpty()) {
+                heads.add(new int[]{i, 0});
+            }
+        }
+        List<T> merged = new ArrayList<>(size);
+        while (merged.size() < size) {
+            int[] head = heads.poll();
+            List<T> list = sorted.get(head[0]);
+            merged.add(list.get(head[1]));
+            if (++head[1] < list.size()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+}
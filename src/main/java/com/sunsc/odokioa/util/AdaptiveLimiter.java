@@ -0,0 +1,86 @@
+package com.sunsc.odokioa.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 自适应并发上限(AIMD)：正在执行的数量达到上限时直接拒绝，不排队
+ * <p>
+ * 每次执行结束时用耗时调整上限：耗时超过长期平均值的tolerance倍，或者外部报告有过载(如连接池有人在等)时，
+ * 上限乘以backoff；否则在上限确实被用到一半以上时加1。慢样本只以十分之一的权重计入长期平均值，
+ * 数据库持续变慢时不会很快把慢当成常态，正常负载下耗时整体上移时也能慢慢跟上
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+public final class AdaptiveLimiter {
+
+    /**
+     * 长期平均耗时的平滑系数
+     */
+    private static final double ALPHA = 0.05;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoff;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private volatile double limit;
+
+    /**
+     * 长期平均耗时，0为还没有样本
+     */
+    private double baselineNanos;
+
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoff) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.tolerance = tolerance;
+        this.backoff = backoff;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /**
+     * @return 占到一个名额时为true，之后必须调用一次 {@link #release}
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param elapsedNanos 本次执行耗时
+     * @param overloaded   外部观察到的过载信号
+     */
+    public void release(long elapsedNanos, boolean overloaded) {
+        int inflightBefore = inflight.getAndDecrement();
+        synchronized (this) {
+            if (baselineNanos == 0) {
+                baselineNanos = Math.max(1, elapsedNanos);
+            }
+            boolean slow = elapsedNanos > baselineNanos * tolerance;
+            baselineNanos += (elapsedNanos - baselineNanos) * (slow ? ALPHA / 10 : ALPHA);
+            if (overloaded || slow) {
+                limit = Math.max(minLimit, limit * backoff);
+            } else if (inflightBefore * 2 >= (int) limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+}
@@ -0,0 +1,78 @@
+package com.sunsc.odokioa.util;
+
+import com.sunsc.odokioa.common.BaseEntity;
+import com.sunsc.odokioa.common.Constants;
+import graphql.relay.Connection;
+import graphql.relay.ConnectionCursor;
+import graphql.relay.DefaultConnection;
+import graphql.relay.DefaultConnectionCursor;
+import graphql.relay.DefaultEdge;
+import graphql.relay.DefaultPageInfo;
+import graphql.relay.Edge;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Relay connection构造工具，游标即记录的ObjectId
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+public final class Connections {
+
+    private Connections() {
+    }
+
+    /**
+     * 计算本次分页大小
+     *
+     * @param first 客户端请求的条数
+     * @return 限制在 [1, MAX_PAGE_SIZE] 内的条数
+     */
+    public static int pageSize(Integer first) {
+        if (first == null) {
+            return Constants.DEFAULT_PAGE_SIZE;
+        }
+        if (first <= 0) {
+            throw new IllegalArgumentException("first must be positive");
+        }
+        return Math.min(first, Constants.MAX_PAGE_SIZE);
+    }
+
+    /**
+     * 校验游标
+     *
+     * @param after 客户端传入的游标
+     * @return 合法的游标，未传时为null
+     */
+    public static String checkCursor(String after) {
+        if (after == null || after.isEmpty()) {
+            return null;
+        }
+        if (!ObjectId.isValid(after)) {
+            throw new IllegalArgumentException("invalid cursor: " + after);
+        }
+        return after.toLowerCase();
+    }
+
+    /**
+     * 构造connection，rows需多查一条用于判断是否还有下一页
+     *
+     * @param rows 按主键升序的记录，最多 size + 1 条
+     * @param size 分页大小
+     * @param hasPrevious 是否带了after游标
+     * @param <T> 实体类型
+     * @return connection
+     */
+    public static <T extends BaseEntity> Connection<T> of(List<T> rows, int size, boolean hasPrevious) {
+        boolean hasNext = rows.size() > size;
+        List<Edge<T>> edges = new ArrayList<>(Math.min(rows.size(), size));
+        for (int i = 0; i < rows.size() && i < size; i++) {
+            T row = rows.get(i);
+            edges.add(new DefaultEdge<>(row, new DefaultConnectionCursor(row.getId())));
+        }
+        ConnectionCursor start = edges.isEmpty() ? null : edges.get(0).getCursor();
+        ConnectionCursor end = edges.isEmpty() ? null : edges.get(edges.size() - 1).getCursor();
+        return new DefaultConnection<>(edges, new DefaultPageInfo(start, end, hasPrevious, hasNext));
+    }
+}
@@ -0,0 +1,16 @@
+package com.sunsc.odokioa.util;
+
+import java.io.IOException;
+
+/**
+ * CSV内容不合法，消息只描述文件本身的问题(行号、原因)，可以直接返回给上传的用户
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+public class CsvFormatException extends IOException {
+
+    public CsvFormatException(String message) {
+        super(message);
+    }
+}
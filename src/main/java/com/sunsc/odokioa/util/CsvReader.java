@@ -0,0 +1,128 @@
+package com.sunsc.odokioa.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 逐条读取CSV记录，不把整个文件读进内存
+ * <p>
+ * 支持双引号包裹的字段、字段内的逗号、换行和转义的双引号("")，忽略开头的UTF-8 BOM；
+ * 单条记录超过 {@link #MAX_RECORD_CHARS} 视为文件损坏
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+public class CsvReader implements Closeable {
+
+    public static final int MAX_RECORD_CHARS = 64 * 1024;
+
+    private static final int EOF = -1;
+
+    private final Reader reader;
+    private int pushedBack = Integer.MIN_VALUE;
+    private int line = 1;
+    private int recordLine;
+    private boolean started;
+
+    /**
+     * @param reader 调用方负责包一层缓冲
+     */
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return 下一条记录的各个字段，文件结束时为null
+     * @throws CsvFormatException 记录过长或引号没有闭合
+     */
+    public List<String> next() throws IOException {
+        int c = read();
+        if (!started) {
+            started = true;
+            if (c == '\uFEFF') {
+                c = read();
+            }
+        }
+        if (c == EOF) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = 0;
+        while (true) {
+            if (++length > MAX_RECORD_CHARS) {
+                throw new CsvFormatException("record at line " + recordLine + " is too long");
+            }
+            if (quoted) {
+                if (c == EOF) {
+                    throw new CsvFormatException("unterminated quoted field at line " + recordLine);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == EOF) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        unread(next);
+                    }
+                }
+                if (c != EOF) {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * @return 上一次 {@link #next()} 返回的记录在文件中的起始行号，从1开始
+     */
+    public int getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != Integer.MIN_VALUE) {
+            int c = pushedBack;
+            pushedBack = Integer.MIN_VALUE;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+}
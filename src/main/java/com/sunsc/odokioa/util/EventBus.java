@@ -0,0 +1,187 @@
+package com.sunsc.odokioa.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * 进程内事件总线，一次发布扇出给所有订阅者
+ * <p>
+ * 每个订阅者有自己的有界缓冲：同一个key的事件还没送出时只保留最新的一条(合并)，
+ * 缓冲满时丢弃最早的一条。发布只是往各个缓冲里放事件，投递在executor上进行，
+ * 慢的订阅者不会拖慢写入线程和其他订阅者；每个订阅者同时最多占用一个投递任务
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Slf4j
+public class EventBus<E> {
+
+    private final Function<E, Object> keyFunction;
+    private final int bufferSize;
+    private final Executor executor;
+    private final Set<Channel> channels = ConcurrentHashMap.newKeySet();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param keyFunction 合并用的key，key相同的未投递事件只保留最新的
+     * @param bufferSize  每个订阅者最多缓冲的事件数
+     * @param executor    投递线程池
+     */
+    public EventBus(Function<E, Object> keyFunction, int bufferSize, Executor executor) {
+        this.keyFunction = keyFunction;
+        this.bufferSize = bufferSize;
+        this.executor = executor;
+    }
+
+    /**
+     * 发布事件，不阻塞
+     */
+    public void publish(E event) {
+        for (Channel channel : channels) {
+            channel.offer(event);
+        }
+    }
+
+    /**
+     * @param filter 只投递满足条件的事件
+     * @return 每次subscribe得到一个独立的订阅
+     */
+    public Publisher<E> subscribe(Predicate<E> filter) {
+        return subscriber -> {
+            Channel channel = new Channel(subscriber, filter);
+            channels.add(channel);
+            subscriber.onSubscribe(channel);
+        };
+    }
+
+    /**
+     * @return 当前订阅者数
+     */
+    public int subscriberCount() {
+        return channels.size();
+    }
+
+    /**
+     * @return 因缓冲满被丢弃的事件总数，被合并的不算
+     */
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    private class Channel implements Subscription {
+
+        private final Subscriber<? super E> subscriber;
+        private final Predicate<E> filter;
+        private final LinkedHashMap<Object, E> buffer = new LinkedHashMap<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile boolean cancelled;
+
+        Channel(Subscriber<? super E> subscriber, Predicate<E> filter) {
+            this.subscriber = subscriber;
+            this.filter = filter;
+        }
+
+        void offer(E event) {
+            if (cancelled || !filter.test(event)) {
+                return;
+            }
+            synchronized (buffer) {
+                // 已有同key的事件时原位替换，保留先后顺序
+                Object key = keyFunction.apply(event);
+                if (!buffer.containsKey(key) && buffer.size() >= bufferSize) {
+                    Iterator<E> eldest = buffer.values().iterator();
+                    eldest.next();
+                    eldest.remove();
+                    dropped.incrementAndGet();
+                }
+                buffer.put(key, event);
+            }
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("request must be positive, got " + n));
+                return;
+            }
+            requested.accumulateAndGet(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            channels.remove(this);
+            synchronized (buffer) {
+                buffer.clear();
+            }
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    log.warn("event delivery rejected, cancelling subscription", e);
+                    cancel();
+                    subscriber.onError(e);
+                }
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                long emitted = 0;
+                long limit = requested.get();
+                while (emitted < limit && !cancelled) {
+                    E event = poll();
+                    if (event == null) {
+                        break;
+                    }
+                    try {
+                        subscriber.onNext(event);
+                    } catch (RuntimeException e) {
+                        log.warn("event subscriber failed, cancelling subscription", e);
+                        cancel();
+                        return;
+                    }
+                    emitted++;
+                }
+                if (emitted > 0 && limit != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private E poll() {
+            synchronized (buffer) {
+                Iterator<Map.Entry<Object, E>> iterator = buffer.entrySet().iterator();
+                if (!iterator.hasNext()) {
+                    return null;
+                }
+                E event = iterator.next().getValue();
+                iterator.remove();
+                return event;
+            }
+        }
+    }
+}
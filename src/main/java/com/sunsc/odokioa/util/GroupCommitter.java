@@ -0,0 +1,204 @@
+package com.sunsc.odokioa.util;
+
+import com.sunsc.odokioa.common.ServiceBusyException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 合并提交：把一个时间窗口内到达的写入攒成一批，交给flusher在一个事务里写入
+ * <p>
+ * 每个写入返回的future在所在批次提交成功后才完成；整批失败时逐条重试，一条坏数据不会连累同批的其他写入。
+ * 提交成功后的处理不在重试范围内，失败时异常先经过转换再交给调用方，不把SQL之类的细节带出去。
+ * future在公共线程池上完成，调用方的后续处理不会占用提交线程
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+@Slf4j
+public class GroupCommitter<T> implements AutoCloseable {
+
+    private final BlockingQueue<Pending<T>> queue;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final Consumer<List<T>> flusher;
+    private final Consumer<T> afterCommit;
+    private final Function<RuntimeException, ? extends RuntimeException> failure;
+    private final Thread thread;
+
+    /**
+     * submit持读锁检查running并入队，close持写锁置false；close之后不会再有写入进队列，工作线程写完队列即退出
+     */
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+    private volatile boolean running = true;
+
+    public GroupCommitter(String name, Duration window, int maxBatchSize, int queueCapacity,
+                          Consumer<List<T>> flusher) {
+        this(name, window, maxBatchSize, queueCapacity, flusher, item -> {
+        }, Function.identity());
+    }
+
+    /**
+     * @param flusher     在一个事务里写入一批，抛异常表示整批没有写入
+     * @param afterCommit 每条写入提交后在工作线程上调用一次，抛出的异常只记日志，不影响写入结果
+     * @param failure     写入失败时把flusher的异常转换成交给调用方的异常，原异常只记日志
+     */
+    public GroupCommitter(String name, Duration window, int maxBatchSize, int queueCapacity,
+                          Consumer<List<T>> flusher, Consumer<T> afterCommit,
+                          Function<RuntimeException, ? extends RuntimeException> failure) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.flusher = flusher;
+        this.afterCommit = afterCommit;
+        this.failure = failure;
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * @param item 待写入的数据
+     * @return 所在批次提交后完成，队列满或已关闭时立即以 {@link ServiceBusyException} 失败
+     */
+    public CompletableFuture<T> submit(T item) {
+        Pending<T> pending = new Pending<>(item, new CompletableFuture<>());
+        closeLock.readLock().lock();
+        try {
+            if (!running) {
+                return CompletableFuture.failedFuture(new ServiceBusyException("shutting down, please retry later"));
+            }
+            if (!queue.offer(pending)) {
+                return CompletableFuture.failedFuture(
+                        new ServiceBusyException("write queue is full, please retry later"));
+            }
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        return pending.future();
+    }
+
+    /**
+     * 停止接收新的写入，已入队的写完再返回
+     */
+    @Override
+    public void close() throws InterruptedException {
+        stopAccepting();
+        thread.join();
+    }
+
+    private void stopAccepting() {
+        closeLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+    }
+
+    private void run() {
+        List<Pending<T>> batch = new ArrayList<>(maxBatchSize);
+        boolean interrupted = false;
+        while (!interrupted && (running || !queue.isEmpty())) {
+            try {
+                Pending<T> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    Pending<T> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+                stopAccepting();
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+        // 被中断时队列里可能还有写入，不再提交，直接失败，不让调用方一直等
+        queue.drainTo(batch);
+        for (Pending<T> pending : batch) {
+            pending.fail(new ServiceBusyException("shutting down, please retry later"));
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush(List<Pending<T>> batch) {
+        List<T> items = new ArrayList<>(batch.size());
+        for (Pending<T> pending : batch) {
+            items.add(pending.item());
+        }
+        try {
+            flusher.accept(items);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), e);
+                return;
+            }
+            log.warn("group commit of {} items failed, retrying one by one", batch.size(), e);
+            batch.forEach(this::flushOne);
+            return;
+        }
+        batch.forEach(this::committed);
+    }
+
+    private void flushOne(Pending<T> pending) {
+        try {
+            flusher.accept(List.of(pending.item()));
+        } catch (RuntimeException e) {
+            fail(pending, e);
+            return;
+        }
+        committed(pending);
+    }
+
+    private void committed(Pending<T> pending) {
+        try {
+            afterCommit.accept(pending.item());
+        } catch (RuntimeException e) {
+            // 已经提交了，不能再当成写入失败去重试
+            log.error("after-commit callback failed", e);
+        }
+        pending.complete();
+    }
+
+    private void fail(Pending<T> pending, RuntimeException e) {
+        log.error("group commit of one item failed", e);
+        pending.fail(failure.apply(e));
+    }
+
+    private record Pending<T>(T item, CompletableFuture<T> future) {
+
+        void complete() {
+            future.completeAsync(() -> item);
+        }
+
+        void fail(Throwable e) {
+            CompletableFuture.runAsync(() -> future.completeExceptionally(e));
+        }
+    }
+}
@@ -20,6 +20,7 @@ import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.util.Date;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -62,8 +63,8 @@ public final class ObjectId implements Comparable<ObjectId>, Serializable {
     private static final AtomicInteger NEXT_COUNTER =
             new AtomicInteger(new SecureRandom().nextInt());
 
-    private static final char[] HEX_CHARS =
-            new char[] {
+    private static final byte[] HEX_BYTES =
+            new byte[] {
                 '0', '1', '2', '3', '4', '5', '6', '7',
                 '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
             };
@@ -82,6 +83,34 @@ public final class ObjectId implements Comparable<ObjectId>, Serializable {
         return new ObjectId().toString();
     }
 
+    /**
+     * Gets the hexadecimal string of a new object id. Equivalent to {@link #get()}, but encodes
+     * the fields straight into the string without allocating the {@code ObjectId} and its byte
+     * array.
+     *
+     * @return the new id
+     */
+    public static String nextHexString() {
+        return toHexString(
+                currentTimestampSeconds(),
+                RANDOM_VALUE1,
+                RANDOM_VALUE2,
+                NEXT_COUNTER.getAndIncrement() & LOW_ORDER_THREE_BYTES);
+    }
+
+    /**
+     * Reserves a block of consecutive counter values with a single atomic update, so that a batch
+     * of ids can be generated without touching the shared counter once per id.
+     *
+     * @param size the number of ids in the block
+     * @return the reserved block
+     * @throws IllegalArgumentException if size is not between 1 and 16777216
+     */
+    public static Block reserve(final int size) {
+        isTrueArgument("size between 1 and 16777216", size > 0 && size <= LOW_ORDER_THREE_BYTES + 1);
+        return new Block(NEXT_COUNTER.getAndAdd(size), size);
+    }
+
     /**
      * Gets a new object id with the given date value and all other bits zeroed.
      *
@@ -96,6 +125,20 @@ public final class ObjectId implements Comparable<ObjectId>, Serializable {
         return new ObjectId(dateToTimestampSeconds(date), 0, (short) 0, 0, false);
     }
 
+    /**
+     * Gets a new object id with the given date value and all other bits set.
+     *
+     * <p>The returned object id will compare as greater than or equal to any other object id within
+     * the same second as the given date, and greater than any earlier date.
+     *
+     * @param date the date
+     * @return the ObjectId
+     */
+    public static ObjectId getLargestWithDate(final Date date) {
+        return new ObjectId(dateToTimestampSeconds(date), LOW_ORDER_THREE_BYTES, (short) -1,
+                LOW_ORDER_THREE_BYTES, false);
+    }
+
     /**
      * Checks if a string could be an {@code ObjectId}.
      *
@@ -304,13 +347,7 @@ public final class ObjectId implements Comparable<ObjectId>, Serializable {
      * @return a string representation of the ObjectId in hexadecimal format
      */
     public String toHexString() {
-        char[] chars = new char[OBJECT_ID_LENGTH * 2];
-        int i = 0;
-        for (byte b : toByteArray()) {
-            chars[i++] = HEX_CHARS[b >> 4 & 0xF];
-            chars[i++] = HEX_CHARS[b & 0xF];
-        }
-        return new String(chars);
+        return toHexString(timestamp, randomValue1, randomValue2, counter);
     }
 
     @Override
@@ -374,6 +411,49 @@ public final class ObjectId implements Comparable<ObjectId>, Serializable {
         throw new InvalidObjectException("Proxy required");
     }
 
+    /**
+     * A block of counter values reserved by {@link #reserve(int)}. Each id takes the current time
+     * as its timestamp and the next reserved counter, so ids stay unique across blocks and
+     * threads. Instances are not thread-safe; a block is meant to be used by one thread.
+     */
+    public static final class Block {
+
+        private final int start;
+        private final int size;
+        private int used;
+
+        private Block(final int start, final int size) {
+            this.start = start;
+            this.size = size;
+        }
+
+        /**
+         * Gets the number of ids left in this block.
+         *
+         * @return the remaining ids
+         */
+        public int remaining() {
+            return size - used;
+        }
+
+        /**
+         * Gets the hexadecimal string of the next id in this block.
+         *
+         * @return the id
+         * @throws IllegalStateException if the block is exhausted
+         */
+        public String nextHexString() {
+            if (used == size) {
+                throw new IllegalStateException("reserved block of " + size + " ids is exhausted");
+            }
+            return toHexString(
+                    currentTimestampSeconds(),
+                    RANDOM_VALUE1,
+                    RANDOM_VALUE2,
+                    (start + used++) & LOW_ORDER_THREE_BYTES);
+        }
+    }
+
     private static class SerializationProxy implements Serializable {
         private static final long serialVersionUID = 1L;
 
@@ -415,6 +495,27 @@ public final class ObjectId implements Comparable<ObjectId>, Serializable {
         return (int) (time.getTime() / 1000);
     }
 
+    private static int currentTimestampSeconds() {
+        return (int) (System.currentTimeMillis() / 1000);
+    }
+
+    private static String toHexString(
+            final int timestamp, final int randomValue1, final short randomValue2, final int counter) {
+        byte[] hex = new byte[OBJECT_ID_LENGTH * 2];
+        putHex(hex, 0, timestamp, 8);
+        putHex(hex, 8, randomValue1, 6);
+        putHex(hex, 14, randomValue2, 4);
+        putHex(hex, 18, counter, 6);
+        return new String(hex, StandardCharsets.ISO_8859_1);
+    }
+
+    /** Writes the low {@code digits} hex digits of {@code value}, most significant first. */
+    private static void putHex(final byte[] hex, final int offset, final int value, final int digits) {
+        for (int i = digits - 1, shift = 0; i >= 0; i--, shift += 4) {
+            hex[offset + i] = HEX_BYTES[(value >>> shift) & 0xF];
+        }
+    }
+
     // Big-Endian helpers, in this class because all other BSON numbers are little-endian
 
     private static int makeInt(final byte b3, final byte b2, final byte b1, final byte b0) {
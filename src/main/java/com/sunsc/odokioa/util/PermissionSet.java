@@ -0,0 +1,80 @@
+package com.sunsc.odokioa.util;
+
+import com.sunsc.odokioa.enums.Permission;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 不可变的权限集合，每个权限点占一位，按 {@link Permission#ordinal()} 定位
+ * <p>
+ * 判断是否有某个权限只是一次数组读取和位运算，不分配对象
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+public final class PermissionSet {
+
+    private static final int WORDS = (Permission.values().length + 63) >>> 6;
+
+    public static final PermissionSet EMPTY = new PermissionSet(new long[WORDS]);
+
+    private final long[] words;
+
+    private PermissionSet(long[] words) {
+        this.words = words;
+    }
+
+    public static PermissionSet of(Iterable<Permission> permissions) {
+        long[] words = new long[WORDS];
+        for (Permission permission : permissions) {
+            int bit = permission.ordinal();
+            words[bit >>> 6] |= 1L << bit;
+        }
+        return new PermissionSet(words);
+    }
+
+    public boolean has(Permission permission) {
+        int bit = permission.ordinal();
+        return (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * @return 两个集合的并集
+     */
+    public PermissionSet union(PermissionSet other) {
+        long[] merged = words.clone();
+        for (int i = 0; i < WORDS; i++) {
+            merged[i] |= other.words[i];
+        }
+        return new PermissionSet(merged);
+    }
+
+    /**
+     * @return 集合中的权限点，按定义顺序
+     */
+    public List<Permission> toList() {
+        List<Permission> permissions = new ArrayList<>();
+        for (Permission permission : Permission.values()) {
+            if (has(permission)) {
+                permissions.add(permission);
+            }
+        }
+        return permissions;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PermissionSet other && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+}
@@ -0,0 +1,82 @@
+package com.sunsc.odokioa.util;
+
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 根据graphql查询的字段计算需要select的列，只查客户端要的字段
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+public final class Projections {
+
+    /**
+     * connection中实体字段的路径
+     */
+    public static final String CONNECTION_NODE = "edges/node/*";
+
+    /**
+     * 实体类 -> (属性 -> select片段)
+     */
+    private static final Map<Class<?>, Map<String, String>> SELECTS = new ConcurrentHashMap<>();
+
+    private Projections() {
+    }
+
+    /**
+     * 计算列表查询需要的列
+     *
+     * @param selectionSet 当前字段的子字段
+     * @param entityClass 实体类
+     * @return select列，主键总是包含，关联查询依赖主键
+     */
+    public static List<String> columns(DataFetchingFieldSelectionSet selectionSet, Class<?> entityClass) {
+        return columns(selectionSet.getImmediateFields(), entityClass);
+    }
+
+    /**
+     * 计算connection查询需要的列
+     *
+     * @param selectionSet connection字段的子字段
+     * @param entityClass 实体类
+     * @return select列
+     */
+    public static List<String> connectionColumns(DataFetchingFieldSelectionSet selectionSet, Class<?> entityClass) {
+        return columns(selectionSet.getFields(CONNECTION_NODE), entityClass);
+    }
+
+    private static List<String> columns(List<SelectedField> fields, Class<?> entityClass) {
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(entityClass);
+        Map<String, String> selects = SELECTS.computeIfAbsent(entityClass, k -> selects(tableInfo));
+        Set<String> columns = new LinkedHashSet<>();
+        columns.add(tableInfo.getKeySqlSelect());
+        for (SelectedField field : fields) {
+            String select = selects.get(field.getName());
+            if (select != null) {
+                columns.add(select);
+            }
+        }
+        return new ArrayList<>(columns);
+    }
+
+    private static Map<String, String> selects(TableInfo tableInfo) {
+        Map<String, String> selects = new ConcurrentHashMap<>();
+        for (TableFieldInfo fieldInfo : tableInfo.getFieldList()) {
+            // select = false 的字段（如密码）不允许投影出来
+            if (fieldInfo.isSelect()) {
+                selects.put(fieldInfo.getProperty(), fieldInfo.getSqlSelect());
+            }
+        }
+        return selects;
+    }
+}
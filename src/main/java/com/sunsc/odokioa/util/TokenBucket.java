@@ -0,0 +1,44 @@
+package com.sunsc.odokioa.util;
+
+/**
+ * 令牌桶，按时间匀速补充令牌，桶满后不再增加
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+public final class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double capacity;
+
+    private double tokens;
+    private long lastNanos;
+
+    /**
+     * @param ratePerSecond 每秒补充的令牌数
+     * @param capacity      桶容量
+     * @param nowNanos      当前时间，System.nanoTime()
+     */
+    public TokenBucket(double ratePerSecond, int capacity, long nowNanos) {
+        this.tokensPerNano = ratePerSecond / 1_000_000_000d;
+        this.capacity = Math.max(1, capacity);
+        this.tokens = this.capacity;
+        this.lastNanos = nowNanos;
+    }
+
+    /**
+     * @param nowNanos 当前时间，System.nanoTime()
+     * @return 取到一个令牌时为true，桶空时为false，不等待
+     */
+    public synchronized boolean tryTake(long nowNanos) {
+        if (nowNanos > lastNanos) {
+            tokens = Math.min(capacity, tokens + (nowNanos - lastNanos) * tokensPerNano);
+            lastNanos = nowNanos;
+        }
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
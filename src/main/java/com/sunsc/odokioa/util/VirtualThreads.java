@@ -0,0 +1,53 @@
+package com.sunsc.odokioa.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 虚拟线程工具
+ * <p>
+ * 项目按Java 17编译，虚拟线程的API通过反射调用，运行在JDK 21及以上时可用
+ *
+ * @author sunshaocong
+ * @date 2026/10/16
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @param prefix 线程名前缀，后面接从0开始的序号
+     * @return 创建虚拟线程的工厂
+     * @throws IllegalStateException 当前JDK不支持虚拟线程
+     */
+    public static ThreadFactory threadFactory(String prefix) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            throw new IllegalStateException("virtual threads require JDK 21 or later, running on " + Runtime.version());
+        } catch (InvocationTargetException e) {
+            // JDK 19/20未开启--enable-preview
+            throw new IllegalStateException("virtual threads are not available: " + e.getCause().getMessage(),
+                    e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 每个任务一个新的虚拟线程，没有池也没有队列，不需要关闭
+     *
+     * @param prefix 线程名前缀
+     * @return executor
+     * @throws IllegalStateException 当前JDK不支持虚拟线程
+     */
+    public static Executor newThreadPerTaskExecutor(String prefix) {
+        ThreadFactory factory = threadFactory(prefix);
+        return command -> factory.newThread(command).start();
+    }
+}
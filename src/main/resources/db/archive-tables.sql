@@ -0,0 +1,17 @@
+-- 逻辑删除归档表，配合 odoki.archive.enabled=true 使用
+-- 与原表同结构，末尾多一列归档时间；原表加列时归档表要同步加在 archivedAt 之前
+
+CREATE TABLE user_archive LIKE user;
+ALTER TABLE user_archive ADD COLUMN archivedAt BIGINT NOT NULL;
+
+CREATE TABLE role_archive LIKE role;
+ALTER TABLE role_archive ADD COLUMN archivedAt BIGINT NOT NULL;
+
+CREATE TABLE user_role_archive LIKE user_role;
+ALTER TABLE user_role_archive ADD COLUMN archivedAt BIGINT NOT NULL;
+
+-- 归档按 deleted = 1 AND id > ? ORDER BY id 找下一批，没有这个索引时每批都要在主库上沿主键扫过大片有效行；
+-- user表分库时每个分片都要执行
+ALTER TABLE user ADD INDEX idx_user_deleted_id (deleted, id);
+ALTER TABLE role ADD INDEX idx_role_deleted_id (deleted, id);
+ALTER TABLE user_role ADD INDEX idx_user_role_deleted_id (deleted, id);
@@ -0,0 +1,118 @@
+-- 把ObjectId列从VARCHAR(24)迁移为BINARY(12)，配合 odoki.id-storage.mode=binary 使用
+-- 执行前停写并备份；覆盖 odoki.id-storage.columns 里的全部列：id、userId、roleId、creatorId、updaterId
+-- 每列先在原位置后面加一个 xxx_bin 列，UNHEX 转换后删掉原列再改名，列顺序不变(归档表 INSERT ... SELECT t.* 依赖列顺序)
+
+-- user
+ALTER TABLE user
+    ADD COLUMN id_bin BINARY(12) AFTER id,
+    ADD COLUMN creatorId_bin BINARY(12) AFTER creatorId,
+    ADD COLUMN updaterId_bin BINARY(12) AFTER updaterId;
+UPDATE user SET id_bin = UNHEX(id), creatorId_bin = UNHEX(creatorId), updaterId_bin = UNHEX(updaterId);
+ALTER TABLE user
+    DROP PRIMARY KEY,
+    DROP COLUMN id, DROP COLUMN creatorId, DROP COLUMN updaterId,
+    CHANGE id_bin id BINARY(12) NOT NULL,
+    CHANGE creatorId_bin creatorId BINARY(12),
+    CHANGE updaterId_bin updaterId BINARY(12),
+    ADD PRIMARY KEY (id);
+
+-- role
+ALTER TABLE role
+    ADD COLUMN id_bin BINARY(12) AFTER id,
+    ADD COLUMN creatorId_bin BINARY(12) AFTER creatorId,
+    ADD COLUMN updaterId_bin BINARY(12) AFTER updaterId;
+UPDATE role SET id_bin = UNHEX(id), creatorId_bin = UNHEX(creatorId), updaterId_bin = UNHEX(updaterId);
+ALTER TABLE role
+    DROP PRIMARY KEY,
+    DROP COLUMN id, DROP COLUMN creatorId, DROP COLUMN updaterId,
+    CHANGE id_bin id BINARY(12) NOT NULL,
+    CHANGE creatorId_bin creatorId BINARY(12),
+    CHANGE updaterId_bin updaterId BINARY(12),
+    ADD PRIMARY KEY (id);
+
+-- user_role
+ALTER TABLE user_role
+    ADD COLUMN id_bin BINARY(12) AFTER id,
+    ADD COLUMN userId_bin BINARY(12) AFTER userId,
+    ADD COLUMN roleId_bin BINARY(12) AFTER roleId,
+    ADD COLUMN creatorId_bin BINARY(12) AFTER creatorId,
+    ADD COLUMN updaterId_bin BINARY(12) AFTER updaterId;
+UPDATE user_role SET id_bin = UNHEX(id), userId_bin = UNHEX(userId), roleId_bin = UNHEX(roleId),
+    creatorId_bin = UNHEX(creatorId), updaterId_bin = UNHEX(updaterId);
+ALTER TABLE user_role
+    DROP PRIMARY KEY,
+    DROP INDEX idx_user_role_userId,
+    DROP COLUMN id, DROP COLUMN userId, DROP COLUMN roleId, DROP COLUMN creatorId, DROP COLUMN updaterId,
+    CHANGE id_bin id BINARY(12) NOT NULL,
+    CHANGE userId_bin userId BINARY(12) NOT NULL,
+    CHANGE roleId_bin roleId BINARY(12) NOT NULL,
+    CHANGE creatorId_bin creatorId BINARY(12),
+    CHANGE updaterId_bin updaterId BINARY(12),
+    ADD PRIMARY KEY (id),
+    ADD INDEX idx_user_role_userId (userId);
+
+-- role_permission
+ALTER TABLE role_permission
+    ADD COLUMN id_bin BINARY(12) AFTER id,
+    ADD COLUMN roleId_bin BINARY(12) AFTER roleId,
+    ADD COLUMN creatorId_bin BINARY(12) AFTER creatorId,
+    ADD COLUMN updaterId_bin BINARY(12) AFTER updaterId;
+UPDATE role_permission SET id_bin = UNHEX(id), roleId_bin = UNHEX(roleId),
+    creatorId_bin = UNHEX(creatorId), updaterId_bin = UNHEX(updaterId);
+ALTER TABLE role_permission
+    DROP PRIMARY KEY,
+    DROP INDEX idx_role_permission_roleId,
+    DROP COLUMN id, DROP COLUMN roleId, DROP COLUMN creatorId, DROP COLUMN updaterId,
+    CHANGE id_bin id BINARY(12) NOT NULL,
+    CHANGE roleId_bin roleId BINARY(12) NOT NULL,
+    CHANGE creatorId_bin creatorId BINARY(12),
+    CHANGE updaterId_bin updaterId BINARY(12),
+    ADD PRIMARY KEY (id),
+    ADD INDEX idx_role_permission_roleId (roleId);
+
+-- 已经按 archive-tables.sql 建了归档表时，归档表同样转换，否则迁移后再建即可
+ALTER TABLE user_archive
+    ADD COLUMN id_bin BINARY(12) AFTER id,
+    ADD COLUMN creatorId_bin BINARY(12) AFTER creatorId,
+    ADD COLUMN updaterId_bin BINARY(12) AFTER updaterId;
+UPDATE user_archive SET id_bin = UNHEX(id), creatorId_bin = UNHEX(creatorId), updaterId_bin = UNHEX(updaterId);
+ALTER TABLE user_archive
+    DROP PRIMARY KEY,
+    DROP COLUMN id, DROP COLUMN creatorId, DROP COLUMN updaterId,
+    CHANGE id_bin id BINARY(12) NOT NULL,
+    CHANGE creatorId_bin creatorId BINARY(12),
+    CHANGE updaterId_bin updaterId BINARY(12),
+    ADD PRIMARY KEY (id);
+
+ALTER TABLE role_archive
+    ADD COLUMN id_bin BINARY(12) AFTER id,
+    ADD COLUMN creatorId_bin BINARY(12) AFTER creatorId,
+    ADD COLUMN updaterId_bin BINARY(12) AFTER updaterId;
+UPDATE role_archive SET id_bin = UNHEX(id), creatorId_bin = UNHEX(creatorId), updaterId_bin = UNHEX(updaterId);
+ALTER TABLE role_archive
+    DROP PRIMARY KEY,
+    DROP COLUMN id, DROP COLUMN creatorId, DROP COLUMN updaterId,
+    CHANGE id_bin id BINARY(12) NOT NULL,
+    CHANGE creatorId_bin creatorId BINARY(12),
+    CHANGE updaterId_bin updaterId BINARY(12),
+    ADD PRIMARY KEY (id);
+
+ALTER TABLE user_role_archive
+    ADD COLUMN id_bin BINARY(12) AFTER id,
+    ADD COLUMN userId_bin BINARY(12) AFTER userId,
+    ADD COLUMN roleId_bin BINARY(12) AFTER roleId,
+    ADD COLUMN creatorId_bin BINARY(12) AFTER creatorId,
+    ADD COLUMN updaterId_bin BINARY(12) AFTER updaterId;
+UPDATE user_role_archive SET id_bin = UNHEX(id), userId_bin = UNHEX(userId), roleId_bin = UNHEX(roleId),
+    creatorId_bin = UNHEX(creatorId), updaterId_bin = UNHEX(updaterId);
+ALTER TABLE user_role_archive
+    DROP PRIMARY KEY,
+    DROP INDEX idx_user_role_userId,
+    DROP COLUMN id, DROP COLUMN userId, DROP COLUMN roleId, DROP COLUMN creatorId, DROP COLUMN updaterId,
+    CHANGE id_bin id BINARY(12) NOT NULL,
+    CHANGE userId_bin userId BINARY(12) NOT NULL,
+    CHANGE roleId_bin roleId BINARY(12) NOT NULL,
+    CHANGE creatorId_bin creatorId BINARY(12),
+    CHANGE updaterId_bin updaterId BINARY(12),
+    ADD PRIMARY KEY (id),
+    ADD INDEX idx_user_role_userId (userId);
@@ -0,0 +1,34 @@
+-- 开启 odoki.auth.enforce 之前执行一次：建管理员和只读两个角色并授权，再把角色分配给已有用户，
+-- 否则开启后没有角色的用户(也就是全部已有客户端)的请求都会被拒绝。
+-- 执行前把 @admin_user_id 改成管理员的用户id；开启前先看 permissions.denied 计数，确认没有漏掉的调用方
+-- binary主键模式下 id 列用 UNHEX(...) 写入
+
+SET @admin_user_id = '<管理员用户id>';
+SET @now = UNIX_TIMESTAMP() * 1000;
+SET @admin_role_id = LEFT(REPLACE(UUID(), '-', ''), 24);
+SET @reader_role_id = LEFT(REPLACE(UUID(), '-', ''), 24);
+
+INSERT INTO role (id, name, code, deleted, createTime)
+VALUES (@admin_role_id, 'admin', 1, 0, @now),
+       (@reader_role_id, 'reader', 2, 0, @now);
+
+-- 管理员拥有全部权限点，只读角色只能查看用户和角色
+INSERT INTO role_permission (id, roleId, permission, deleted, createTime)
+SELECT LEFT(REPLACE(UUID(), '-', ''), 24), @admin_role_id, p.permission, 0, @now
+FROM (SELECT 'USER_READ' AS permission UNION ALL SELECT 'USER_WRITE' UNION ALL SELECT 'USER_IMPORT'
+      UNION ALL SELECT 'USER_EXPORT' UNION ALL SELECT 'ROLE_READ' UNION ALL SELECT 'ROLE_WRITE'
+      UNION ALL SELECT 'PERMISSION_GRANT') p;
+INSERT INTO role_permission (id, roleId, permission, deleted, createTime)
+VALUES (LEFT(REPLACE(UUID(), '-', ''), 24), @reader_role_id, 'USER_READ', 0, @now),
+       (LEFT(REPLACE(UUID(), '-', ''), 24), @reader_role_id, 'ROLE_READ', 0, @now);
+
+INSERT INTO user_role (id, userId, roleId, deleted, createTime)
+VALUES (LEFT(REPLACE(UUID(), '-', ''), 24), @admin_user_id, @admin_role_id, 0, @now);
+
+-- 已有用户都分配只读角色，保持开启前能查看的范围。
+-- user表分片(odoki.sharding)时user_role在默认库、用户在各分片上，这一句改为在每个分片上导出用户id后写入默认库
+INSERT INTO user_role (id, userId, roleId, deleted, createTime)
+SELECT LEFT(REPLACE(UUID(), '-', ''), 24), u.id, @reader_role_id, 0, @now
+FROM user u
+WHERE u.deleted = 0
+  AND u.id <> @admin_user_id;
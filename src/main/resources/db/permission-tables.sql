@@ -0,0 +1,18 @@
+-- 角色权限表，permission 为 com.sunsc.odokioa.enums.Permission 的名称
+-- binary主键模式下 id、roleId 改为 BINARY(12)
+
+CREATE TABLE role_permission (
+    id          VARCHAR(24) NOT NULL PRIMARY KEY,
+    roleId      VARCHAR(24) NOT NULL,
+    permission  VARCHAR(64) NOT NULL,
+    deleted     TINYINT(1)  NOT NULL DEFAULT 0,
+    creatorId   VARCHAR(24),
+    creatorName VARCHAR(64),
+    createTime  BIGINT,
+    updaterId   VARCHAR(24),
+    updaterName VARCHAR(64),
+    updateTime  BIGINT,
+    INDEX idx_role_permission_roleId (roleId)
+);
+
+-- 第一个管理员角色需要直接在库里授权，之后通过 grantPermission 维护；初始的管理员、只读角色和已有用户的分配见 permission-seed.sql
@@ -0,0 +1,16 @@
+-- 用户角色关联表，按 userId 批量查询用户的角色
+-- binary主键模式下 id、userId、roleId、creatorId、updaterId 改为 BINARY(12)，见 migration-binary-id.sql
+
+CREATE TABLE user_role (
+    id          VARCHAR(24) NOT NULL PRIMARY KEY,
+    userId      VARCHAR(24) NOT NULL,
+    roleId      VARCHAR(24) NOT NULL,
+    deleted     TINYINT(1)  NOT NULL DEFAULT 0,
+    creatorId   VARCHAR(24),
+    creatorName VARCHAR(64),
+    createTime  BIGINT,
+    updaterId   VARCHAR(24),
+    updaterName VARCHAR(64),
+    updateTime  BIGINT,
+    INDEX idx_user_role_userId (userId)
+);
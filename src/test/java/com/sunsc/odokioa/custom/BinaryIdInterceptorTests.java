@@ -0,0 +1,178 @@
+package com.sunsc.odokioa.custom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.MybatisSqlSessionFactoryBuilder;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.config.GlobalConfig;
+import com.baomidou.mybatisplus.core.toolkit.GlobalConfigUtils;
+import com.sunsc.odokioa.config.IdStorageProperties;
+import com.sunsc.odokioa.dao.UserMapper;
+import com.sunsc.odokioa.domain.User;
+import com.sunsc.odokioa.util.ObjectId;
+import java.util.List;
+import javax.sql.DataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.apache.ibatis.type.JdbcType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * BINARY(12)主键模式，H2里的user表id、creatorId、updaterId为BINARY(12)，通过UserMapper读写
+ */
+class BinaryIdInterceptorTests {
+
+    private JdbcTemplate jdbcTemplate;
+    private SqlSessionFactory sqlSessionFactory;
+    private SqlSession session;
+    private UserMapper mapper;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:binary" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER",
+                "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE user (id BINARY(12) PRIMARY KEY, code BIGINT, name VARCHAR(32),"
+                + " mobile VARCHAR(32), avatar VARCHAR(255), gender VARCHAR(8), birthday VARCHAR(32),"
+                + " password VARCHAR(255), deleted TINYINT NOT NULL DEFAULT 0, creatorId BINARY(12),"
+                + " creatorName VARCHAR(64), createTime BIGINT, updaterId BINARY(12), updaterName VARCHAR(64),"
+                + " updateTime BIGINT)");
+
+        MybatisConfiguration configuration = new MybatisConfiguration(
+                new Environment("test", new JdbcTransactionFactory(), dataSource));
+        // 与 application.yml 一致，列名就是属性名
+        configuration.setMapUnderscoreToCamelCase(false);
+        ObjectIdTypeHandler typeHandler = new ObjectIdTypeHandler();
+        configuration.getTypeHandlerRegistry().register(String.class, JdbcType.BINARY, typeHandler);
+        configuration.getTypeHandlerRegistry().register(String.class, JdbcType.VARBINARY, typeHandler);
+        configuration.addInterceptor(new BinaryIdInterceptor(new IdStorageProperties().getColumns()));
+        GlobalConfig globalConfig = GlobalConfigUtils.defaults();
+        globalConfig.setBanner(false);
+        globalConfig.setIdentifierGenerator(new CustomIdGenerator());
+        globalConfig.setMetaObjectHandler(new CustomMetaObjectHandler());
+        globalConfig.getDbConfig().setIdType(IdType.ASSIGN_UUID);
+        globalConfig.getDbConfig().setLogicDeleteField("deleted");
+        globalConfig.getDbConfig().setLogicDeleteValue("1");
+        globalConfig.getDbConfig().setLogicNotDeleteValue("0");
+        GlobalConfigUtils.setGlobalConfig(configuration, globalConfig);
+        configuration.addMapper(UserMapper.class);
+        sqlSessionFactory = new MybatisSqlSessionFactoryBuilder().build(configuration);
+        session = sqlSessionFactory.openSession(true);
+        mapper = session.getMapper(UserMapper.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        session.close();
+    }
+
+    @Test
+    void insertStoresTwelveBytes() {
+        String creatorId = ObjectId.nextHexString();
+        User user = user("alice");
+        user.setCreatorId(creatorId);
+        mapper.insert(user);
+
+        assertNotNull(user.getId());
+        assertArrayEquals(new ObjectId(user.getId()).toByteArray(),
+                jdbcTemplate.queryForObject("SELECT id FROM user", byte[].class));
+        assertArrayEquals(new ObjectId(creatorId).toByteArray(),
+                jdbcTemplate.queryForObject("SELECT creatorId FROM user", byte[].class));
+    }
+
+    @Test
+    void getByIdReturnsHexIds() {
+        String creatorId = ObjectId.nextHexString();
+        User user = user("alice");
+        user.setCreatorId(creatorId);
+        mapper.insert(user);
+
+        User loaded = mapper.selectById(user.getId());
+        assertEquals(user.getId(), loaded.getId());
+        assertEquals(creatorId, loaded.getCreatorId());
+        assertEquals("alice", loaded.getName());
+        assertNull(mapper.selectById(ObjectId.nextHexString()));
+    }
+
+    @Test
+    void updateByIdConvertsWhereAndSet() {
+        User user = user("alice");
+        mapper.insert(user);
+
+        User update = new User();
+        update.setId(user.getId());
+        update.setName("bob");
+        update.setUpdaterId(ObjectId.nextHexString());
+        assertEquals(1, mapper.updateById(update));
+
+        User loaded = mapper.selectById(user.getId());
+        assertEquals("bob", loaded.getName());
+        assertEquals(update.getUpdaterId(), loaded.getUpdaterId());
+    }
+
+    @Test
+    void logicalDeleteHidesRow() {
+        User user = user("alice");
+        mapper.insert(user);
+
+        assertEquals(1, mapper.deleteById(user.getId()));
+        assertNull(mapper.selectById(user.getId()));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT deleted FROM user", Integer.class));
+    }
+
+    @Test
+    void wrapperConditionsOnIdColumns() {
+        List<String> ids = List.of(insert("a"), insert("b"), insert("c"), insert("d"));
+
+        assertEquals(List.of("b"), names(new QueryWrapper<User>().eq("id", ids.get(1))));
+        assertEquals(List.of("a", "c"), names(new QueryWrapper<User>().in("id", ids.get(0), ids.get(2))));
+        assertEquals(List.of("c", "d"), names(new QueryWrapper<User>().gt("id", ids.get(1))));
+        assertEquals(List.of("b", "c"), names(new QueryWrapper<User>().between("id", ids.get(1), ids.get(2))));
+        assertEquals(List.of("c"), names(new QueryWrapper<User>().eq("name", "c").ge("id", ids.get(0))));
+    }
+
+    @Test
+    void sharedParameterMappingsAreNotModified() {
+        String id = insert("alice");
+        mapper.selectById(id);
+        mapper.selectById(id);
+
+        // selectById是静态SQL，BoundSql的参数列表来自MappedStatement
+        List<ParameterMapping> mappings = sqlSessionFactory.getConfiguration()
+                .getMappedStatement(UserMapper.class.getName() + ".selectById")
+                .getBoundSql(id)
+                .getParameterMappings();
+        assertFalse(mappings.stream().anyMatch(mapping -> mapping.getTypeHandler() instanceof ObjectIdTypeHandler));
+    }
+
+    private String insert(String name) {
+        User user = user(name);
+        mapper.insert(user);
+        return user.getId();
+    }
+
+    private List<String> names(QueryWrapper<User> wrapper) {
+        return mapper.selectList(wrapper.orderByAsc("id")).stream().map(User::getName).toList();
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setMobile("138" + name);
+        return user;
+    }
+}
@@ -0,0 +1,138 @@
+package com.sunsc.odokioa.custom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.zaxxer.hikari.HikariDataSource;
+import graphql.ExecutionInput;
+import graphql.GraphQL;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * 用几个H2内存库代替主库和从库，每个库的node表里写着自己的名字
+ */
+class ReadWriteRoutingDataSourceTests {
+
+    @AfterEach
+    void clearRoute() {
+        DataSourceRoute.clear();
+    }
+
+    @Test
+    void writesGoToPrimary() {
+        ReadWriteRoutingDataSource routing = routing(node("primary"), node("replica0"), node("replica1"));
+
+        assertEquals("primary", currentNode(routing));
+    }
+
+    @Test
+    void readsRoundRobinOverReplicas() {
+        ReadWriteRoutingDataSource routing = routing(node("primary"), node("replica0"), node("replica1"));
+
+        DataSourceRoute.useReplica();
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            nodes.add(currentNode(routing));
+        }
+        assertEquals(List.of("replica0", "replica1", "replica0", "replica1"), nodes);
+    }
+
+    @Test
+    void unhealthyReplicaIsSkipped() {
+        ReadWriteRoutingDataSource routing = routing(node("primary"), unreachable(), node("replica1"));
+
+        routing.checkReplicas();
+        DataSourceRoute.useReplica();
+        assertEquals(1, routing.healthyReplicaCount());
+        assertEquals("replica1", currentNode(routing));
+        assertEquals("replica1", currentNode(routing));
+    }
+
+    @Test
+    void readsFallBackToPrimaryWithoutHealthyReplicas() {
+        ReadWriteRoutingDataSource routing = routing(node("primary"), unreachable());
+
+        routing.checkReplicas();
+        DataSourceRoute.useReplica();
+        assertEquals("primary", currentNode(routing));
+    }
+
+    @Test
+    void closeShutsDownEveryPool() {
+        HikariDataSource primary = pool(node("primary"));
+        HikariDataSource replica = pool(node("replica0"));
+        ReadWriteRoutingDataSource routing = routing(primary, replica);
+        DataSourceRoute.useReplica();
+        assertEquals("replica0", currentNode(routing));
+
+        routing.close();
+        assertTrue(primary.isClosed());
+        assertTrue(replica.isClosed());
+    }
+
+    @Test
+    void queryAfterMutationInSameRequestStaysOnPrimary() {
+        String sdl = "type Query { readOnly: Boolean } type Mutation { write: Boolean }";
+        RuntimeWiring wiring = RuntimeWiring.newRuntimeWiring()
+                .type("Query", builder -> builder.dataFetcher("readOnly", env -> DataSourceRoute.isReadOnly()))
+                .type("Mutation", builder -> builder.dataFetcher("write", env -> DataSourceRoute.isReadOnly()))
+                .build();
+        GraphQL graphQL = GraphQL.newGraphQL(new SchemaGenerator()
+                        .makeExecutableSchema(new SchemaParser().parse(sdl), wiring))
+                .instrumentation(new DataSourceRouteInstrumentation())
+                .build();
+        // 同一个请求的多个操作共用一个DataSourceRoute
+        DataSourceRoute route = new DataSourceRoute();
+
+        assertEquals(Map.of("readOnly", true), execute(graphQL, route, "{ readOnly }"));
+        assertFalse(DataSourceRoute.isReadOnly());
+        assertEquals(Map.of("write", false), execute(graphQL, route, "mutation { write }"));
+        assertEquals(Map.of("readOnly", false), execute(graphQL, route, "{ readOnly }"));
+        assertEquals(Map.of("readOnly", true), execute(graphQL, new DataSourceRoute(), "{ readOnly }"));
+    }
+
+    private static Object execute(GraphQL graphQL, DataSourceRoute route, String query) {
+        return graphQL.execute(ExecutionInput.newExecutionInput(query)
+                .graphQLContext(Map.of(DataSourceRoute.class, route))
+                .build()).getData();
+    }
+
+    private static ReadWriteRoutingDataSource routing(DataSource primary, DataSource... replicas) {
+        return new ReadWriteRoutingDataSource(primary, List.of(replicas), 1);
+    }
+
+    private static String currentNode(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource node(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(32))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static HikariDataSource pool(DataSource dataSource) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setDataSource(dataSource);
+        pool.setMaximumPoolSize(1);
+        return pool;
+    }
+
+    private static DataSource unreachable() {
+        return new DriverManagerDataSource("jdbc:h2:tcp://127.0.0.1:1/none", "sa", "");
+    }
+}
@@ -0,0 +1,92 @@
+package com.sunsc.odokioa.custom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sunsc.odokioa.config.AuthProperties;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class RequestUserResolverTests {
+
+    @Test
+    void headerFromTrustedProxyIsAccepted() {
+        RequestUserResolver resolver = resolver("10.1.2.3");
+        assertEquals("u1", resolver.userIdOf(request("10.1.2.3", "u1")));
+    }
+
+    @Test
+    void headerFromOtherAddressesIsIgnored() {
+        RequestUserResolver resolver = resolver("10.1.2.3");
+        assertNull(resolver.userIdOf(request("10.1.2.4", "u1")));
+        assertNull(resolver.userIdOf(request("10.1.2.3", "")));
+        assertNull(resolver.userIdOf(request("10.1.2.3", null)));
+    }
+
+    @Test
+    void cidrRanges() {
+        RequestUserResolver resolver = resolver("10.0.0.0/8", "192.168.4.0/22", "fd00::/8");
+        assertTrue(resolver.isTrusted("10.255.0.1"));
+        assertFalse(resolver.isTrusted("11.0.0.1"));
+        assertTrue(resolver.isTrusted("192.168.7.255"));
+        assertFalse(resolver.isTrusted("192.168.8.0"));
+        assertFalse(resolver.isTrusted("192.168.3.255"));
+        assertTrue(resolver.isTrusted("fd12::1"));
+        assertFalse(resolver.isTrusted("fe80::1"));
+    }
+
+    @Test
+    void defaultTrustsLoopbackOnly() {
+        RequestUserResolver resolver = new RequestUserResolver(new AuthProperties());
+        assertTrue(resolver.isTrusted("127.0.0.1"));
+        assertTrue(resolver.isTrusted("0:0:0:0:0:0:0:1"));
+        assertFalse(resolver.isTrusted("10.0.0.1"));
+    }
+
+    @Test
+    void emptyListTrustsNobody() {
+        RequestUserResolver resolver = resolver();
+        assertNull(resolver.userIdOf(request("127.0.0.1", "u1")));
+    }
+
+    @Test
+    void hostNamesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> resolver("gateway.internal"));
+        assertThrows(IllegalArgumentException.class, () -> resolver("10.0.0.0/33"));
+    }
+
+    @Test
+    void clientAddressComesFromTrustedProxiesOnly() {
+        RequestUserResolver resolver = resolver("10.0.0.0/8");
+        MockHttpServletRequest direct = request("203.0.113.9", null);
+        direct.addHeader(RequestUserResolver.FORWARDED_FOR_HEADER, "198.51.100.1");
+        assertEquals("203.0.113.9", resolver.clientAddressOf(direct));
+
+        MockHttpServletRequest forwarded = request("10.1.2.3", null);
+        // 最左边是客户端自己填的，右边是经过的网关
+        forwarded.addHeader(RequestUserResolver.FORWARDED_FOR_HEADER, "198.51.100.1, 198.51.100.2");
+        forwarded.addHeader(RequestUserResolver.FORWARDED_FOR_HEADER, "10.4.5.6");
+        assertEquals("198.51.100.2", resolver.clientAddressOf(forwarded));
+
+        assertEquals("10.1.2.3", resolver.clientAddressOf(request("10.1.2.3", null)));
+    }
+
+    private static RequestUserResolver resolver(String... proxies) {
+        AuthProperties properties = new AuthProperties();
+        properties.setTrustedProxies(List.of(proxies));
+        return new RequestUserResolver(properties);
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        if (userId != null) {
+            request.addHeader(PermissionInstrumentation.USER_ID_HEADER, userId);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,84 @@
+package com.sunsc.odokioa.custom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 缓存key中查询文本的规范化
+ */
+class ResultCacheManagerTests {
+
+    @Test
+    void whitespaceAndCommasAreDropped() {
+        assertEquals("query Q($a:Int$b:String){users(first:$a after:$b){id name}}",
+                ResultCacheManager.normalize("query Q($a: Int, $b: String) {\n  users(first: $a, after: $b) {\n"
+                        + "    id,\n    name\r\n  }\n}\n"));
+    }
+
+    @Test
+    void namesKeepOneSeparatingSpace() {
+        assertEquals("{users{id name}}", ResultCacheManager.normalize("{users{id\tname}}"));
+        assertEquals("{users{id name}}", ResultCacheManager.normalize("{users{id,name}}"));
+        assertEquals("{role(id:1){name}}", ResultCacheManager.normalize("{ role ( id : 1 ) { name } }"));
+    }
+
+    @Test
+    void commentsAreDropped() {
+        assertEquals("{users{id name}}",
+                ResultCacheManager.normalize("# all users\n{ users { id # the id, \"not a string\n name } }"));
+        assertEquals("{users{id}}", ResultCacheManager.normalize("{ users { id } } # trailing"));
+    }
+
+    @Test
+    void anonymousQueryEqualsShorthand() {
+        String shorthand = ResultCacheManager.normalize("{ users { id } }");
+        assertEquals("{users{id}}", shorthand);
+        assertEquals(shorthand, ResultCacheManager.normalize("query { users { id } }"));
+        assertEquals(shorthand, ResultCacheManager.normalize("query{users{id}}"));
+        assertEquals(shorthand, ResultCacheManager.normalize("\uFEFF query\n{ users { id } }"));
+        // 有名字的不能当成简写
+        assertEquals("query Q{users{id}}", ResultCacheManager.normalize("query Q { users { id } }"));
+        assertEquals("query($a:Int){users(first:$a){id}}",
+                ResultCacheManager.normalize("query ($a: Int) { users(first: $a) { id } }"));
+    }
+
+    @Test
+    void stringsAreKeptVerbatim() {
+        assertEquals("{role(name:\"a ,  # b\"){id}}",
+                ResultCacheManager.normalize("{ role(name: \"a ,  # b\") { id } }"));
+    }
+
+    @Test
+    void escapedQuoteDoesNotEndString() {
+        assertEquals("{role(name:\"say \\\" , hi\\\\\"){id}}",
+                ResultCacheManager.normalize("{ role(name: \"say \\\" , hi\\\\\") { id } }"));
+    }
+
+    @Test
+    void blockStringsAreKeptVerbatim() {
+        String block = "\"\"\"\n  a, \"quoted\" # not a comment\n  \\\"\"\" still inside\n\"\"\"";
+        assertEquals("{role(name:" + block + "){id}}",
+                ResultCacheManager.normalize("{ role(name: " + block + ") { id } }"));
+    }
+
+    @Test
+    void emptyStringsAreStrings() {
+        assertEquals("{role(name:\"\"){id}}", ResultCacheManager.normalize("{ role(name: \"\") { id } }"));
+        assertEquals("{role(name:\"\"\"\"\"\"){id}}",
+                ResultCacheManager.normalize("{ role(name: \"\"\"\"\"\") { id } }"));
+    }
+
+    @Test
+    void unterminatedStringsEndAtInputEnd() {
+        assertEquals("{role(name:\"a b", ResultCacheManager.normalize("{ role(name: \"a b"));
+        assertEquals("{role(name:\"a\\", ResultCacheManager.normalize("{ role(name: \"a\\"));
+        assertEquals("{role(name:\"\"\"a \"\" b", ResultCacheManager.normalize("{ role(name: \"\"\"a \"\" b"));
+    }
+
+    @Test
+    void newlineEndsPlainString() {
+        // 普通字符串不能跨行，换行之后按查询文本处理
+        assertEquals("{role(name:\"a\n){id}}", ResultCacheManager.normalize("{ role(name: \"a\n ) { id } }"));
+    }
+}
@@ -0,0 +1,282 @@
+package com.sunsc.odokioa.custom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.MybatisSqlSessionFactoryBuilder;
+import com.baomidou.mybatisplus.core.config.GlobalConfig;
+import com.baomidou.mybatisplus.core.toolkit.GlobalConfigUtils;
+import com.sunsc.odokioa.config.GroupCommitProperties;
+import com.sunsc.odokioa.config.ShardingProperties;
+import com.sunsc.odokioa.dao.UserMapper;
+import com.sunsc.odokioa.domain.User;
+import com.sunsc.odokioa.service.UserService;
+import com.sunsc.odokioa.service.UserShards;
+import com.sunsc.odokioa.util.ObjectId;
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.mybatis.spring.transaction.SpringManagedTransactionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * 用几个H2内存库做user表的分片，默认库里只有node表；
+ * UserService通过mybatis-plus的UserMapper访问，与应用里一样每条语句按当前线程的分片取连接
+ */
+class ShardRoutingDataSourceTests {
+
+    private static final int SHARDS = 3;
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(SHARDS, SHARDS, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>());
+
+    private ShardRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private UserShards shards;
+    private List<String> ids;
+
+    @BeforeEach
+    void setUp() {
+        List<DataSource> shardDataSources = new ArrayList<>();
+        ShardingProperties properties = new ShardingProperties();
+        for (int i = 0; i < SHARDS; i++) {
+            shardDataSources.add(shard());
+            properties.getShards().add(new ShardingProperties.Shard());
+        }
+        routing = new ShardRoutingDataSource(node("default"), shardDataSources);
+        jdbcTemplate = new JdbcTemplate(routing);
+        shards = new UserShards(properties, executor);
+
+        ids = new ArrayList<>();
+        ObjectId.Block block = ObjectId.reserve(200);
+        for (int i = 0; i < 200; i++) {
+            String id = block.nextHexString();
+            ids.add(id);
+            shards.onShardOf(id, () -> jdbcTemplate.update("INSERT INTO user (id, name) VALUES (?, ?)", id, id));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void userServiceGetByIdReadsOwningShard() {
+        UserService userService = userService();
+        for (String id : ids) {
+            assertEquals(id, userService.getById(id).getName());
+        }
+        assertNull(userService.getById(ObjectId.nextHexString()));
+    }
+
+    @Test
+    void userServiceListAfterPagesAcrossShards() {
+        UserService userService = userService();
+        List<String> sorted = new ArrayList<>(ids);
+        Collections.sort(sorted);
+
+        List<String> paged = new ArrayList<>();
+        String after = null;
+        while (true) {
+            List<User> page = userService.listAfter(after, 7, List.of("id", "name"));
+            if (page.isEmpty()) {
+                break;
+            }
+            assertTrue(page.size() <= 7);
+            paged.addAll(idsOf(page));
+            after = page.get(page.size() - 1).getId();
+        }
+        assertEquals(sorted, paged);
+        assertEquals(sorted.subList(0, 10), idsOf(userService.listAfter(null, 10, null)));
+    }
+
+    @Test
+    void userServiceCountAndListByIdsCoverAllShards() {
+        UserService userService = userService();
+        assertEquals(ids.size(), userService.count());
+        List<String> some = ids.subList(0, 50);
+        assertEquals(new HashSet<>(some), new HashSet<>(idsOf(userService.listByIds(some))));
+    }
+
+    @Test
+    void unroutedUserStatementFailsFast() {
+        UserService userService = userService();
+        RuntimeException e = assertThrows(RuntimeException.class, () -> userService.lambdaQuery().list());
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        assertInstanceOf(IllegalStateException.class, cause);
+    }
+
+    @Test
+    void bulkheadClosesShardPools() throws Exception {
+        HikariDataSource defaultPool = pool(node("default"));
+        List<HikariDataSource> shardPools = List.of(pool(shard()), pool(shard()));
+        JdbcBulkheadDataSource bulkhead = new JdbcBulkheadDataSource(
+                new ShardRoutingDataSource(defaultPool, List.copyOf(shardPools)), 4, 10, Duration.ofSeconds(1));
+        try (ShardRoute.Scope ignored = ShardRoute.use(1)) {
+            assertEquals(0, new JdbcTemplate(bulkhead).queryForObject("SELECT COUNT(*) FROM user", Integer.class));
+        }
+
+        bulkhead.close();
+        assertTrue(defaultPool.isClosed());
+        for (HikariDataSource shardPool : shardPools) {
+            assertTrue(shardPool.isClosed());
+        }
+    }
+
+    @Test
+    void withoutShardGoesToDefault() {
+        assertEquals("default", jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void usersSpreadOverAllShards() {
+        int total = 0;
+        for (int shard = 0; shard < SHARDS; shard++) {
+            try (ShardRoute.Scope ignored = shards.use(shard)) {
+                int count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user", Integer.class);
+                assertTrue(count > 0, "shard " + shard + " is empty");
+                total += count;
+            }
+        }
+        assertEquals(ids.size(), total);
+    }
+
+    @Test
+    void pointLookupHitsOnlyItsShard() {
+        for (String id : ids) {
+            int owner = shards.shardOf(id);
+            for (int shard = 0; shard < SHARDS; shard++) {
+                try (ShardRoute.Scope ignored = shards.use(shard)) {
+                    assertEquals(shard == owner ? 1 : 0, countById(id));
+                }
+            }
+            assertEquals(1, shards.onShardOf(id, () -> countById(id)));
+        }
+    }
+
+    @Test
+    void scatterGatherMergesInIdOrder() {
+        List<String> sorted = new ArrayList<>(ids);
+        Collections.sort(sorted);
+
+        assertEquals(sorted, idsOf(shards.gather(() -> listAfter(null, 0), 0)));
+        assertEquals(sorted.subList(0, 10), idsOf(shards.gather(() -> listAfter(null, 10), 10)));
+    }
+
+    @Test
+    void keysetPagesAcrossShardsMatchGlobalOrder() {
+        List<String> sorted = new ArrayList<>(ids);
+        Collections.sort(sorted);
+
+        List<String> paged = new ArrayList<>();
+        String after = null;
+        while (true) {
+            String cursor = after;
+            List<User> page = shards.gather(() -> listAfter(cursor, 7), 7);
+            if (page.isEmpty()) {
+                break;
+            }
+            paged.addAll(idsOf(page));
+            after = page.get(page.size() - 1).getId();
+        }
+        assertEquals(sorted, paged);
+    }
+
+    private int countById(String id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user WHERE id = ?", Integer.class, id);
+    }
+
+    private List<User> listAfter(String after, int limit) {
+        String sql = "SELECT id, name FROM user" + (after == null ? "" : " WHERE id > ?") + " ORDER BY id"
+                + (limit > 0 ? " LIMIT " + limit : "");
+        Object[] args = after == null ? new Object[0] : new Object[]{after};
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            User user = new User();
+            user.setId(rs.getString("id"));
+            user.setName(rs.getString("name"));
+            return user;
+        }, args);
+    }
+
+    /**
+     * 只有分片相关的依赖，密码、搜索索引等不涉及的依赖为null
+     */
+    private UserService userService() {
+        MybatisConfiguration configuration = new MybatisConfiguration(
+                new Environment("test", new SpringManagedTransactionFactory(), routing));
+        // 与 application.yml 一致，列名就是属性名
+        configuration.setMapUnderscoreToCamelCase(false);
+        GlobalConfig globalConfig = GlobalConfigUtils.defaults();
+        globalConfig.setBanner(false);
+        globalConfig.getDbConfig().setLogicDeleteField("deleted");
+        globalConfig.getDbConfig().setLogicDeleteValue("1");
+        globalConfig.getDbConfig().setLogicNotDeleteValue("0");
+        GlobalConfigUtils.setGlobalConfig(configuration, globalConfig);
+        configuration.addMapper(UserMapper.class);
+        configuration.addInterceptor(new ShardGuardInterceptor(UserMapper.class));
+        UserMapper mapper = new SqlSessionTemplate(new MybatisSqlSessionFactoryBuilder().build(configuration))
+                .getMapper(UserMapper.class);
+
+        UserService userService = new UserService(null, null, null, shards, null, new GroupCommitProperties(),
+                new DataSourceTransactionManager(routing), null);
+        ReflectionTestUtils.setField(userService, "baseMapper", mapper);
+        return userService;
+    }
+
+    private static List<String> idsOf(List<User> users) {
+        return users.stream().map(User::getId).toList();
+    }
+
+    private static DataSource shard() {
+        DataSource dataSource = database();
+        new JdbcTemplate(dataSource).execute("CREATE TABLE user (id VARCHAR(24) PRIMARY KEY, code BIGINT,"
+                + " name VARCHAR(32), mobile VARCHAR(32), avatar VARCHAR(255), gender VARCHAR(8), birthday VARCHAR(32),"
+                + " password VARCHAR(255), deleted TINYINT NOT NULL DEFAULT 0, creatorId VARCHAR(24),"
+                + " creatorName VARCHAR(64), createTime BIGINT, updaterId VARCHAR(24), updaterName VARCHAR(64),"
+                + " updateTime BIGINT)");
+        return dataSource;
+    }
+
+    private static DataSource node(String name) {
+        DataSource dataSource = database();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(32))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static HikariDataSource pool(DataSource dataSource) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setDataSource(dataSource);
+        pool.setMaximumPoolSize(1);
+        return pool;
+    }
+
+    private static DataSource database() {
+        return new DriverManagerDataSource(
+                "jdbc:h2:mem:shard" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER", "sa", "");
+    }
+}
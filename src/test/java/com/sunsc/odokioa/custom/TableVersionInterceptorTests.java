@@ -0,0 +1,41 @@
+package com.sunsc.odokioa.custom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 查询读到的表
+ */
+class TableVersionInterceptorTests {
+
+    @Test
+    void singleTable() {
+        assertEquals(Set.of("role"),
+                TableVersionInterceptor.parseTables("SELECT id,name,code FROM role WHERE deleted=0 AND id=?"));
+    }
+
+    @Test
+    void joinedTables() {
+        assertEquals(Set.of("user_role", "role"), TableVersionInterceptor.parseTables(
+                "SELECT m.userId, r.* FROM user_role m JOIN role r ON r.id = m.roleId"
+                        + " WHERE m.deleted = 0 AND r.deleted = 0 AND m.userId IN (?, ?)"));
+    }
+
+    @Test
+    void subqueryTables() {
+        assertEquals(Set.of("user", "user_role"), TableVersionInterceptor.parseTables(
+                "SELECT id FROM user WHERE id IN (SELECT userId FROM user_role WHERE roleId = ?)"));
+    }
+
+    @Test
+    void quotesAndSchemaAreStripped() {
+        assertEquals(Set.of("user"), TableVersionInterceptor.parseTables("SELECT * FROM odoki.`user` WHERE id > ?"));
+    }
+
+    @Test
+    void unparsableSqlIsUnknown() {
+        assertEquals(Set.of(TableReads.UNKNOWN), TableVersionInterceptor.parseTables("SELECT FROM WHERE"));
+    }
+}
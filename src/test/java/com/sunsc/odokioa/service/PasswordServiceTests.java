@@ -0,0 +1,120 @@
+package com.sunsc.odokioa.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sunsc.odokioa.common.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+/**
+ * 先用阻塞任务占住哈希线程，确认调用线程不参与计算；后台批量哈希给在线请求留出线程
+ */
+class PasswordServiceTests {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private ThreadPoolExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void hashAllAsyncDoesNotHashOnCaller() throws Exception {
+        PasswordService service = service(2, 16);
+        occupyThreads(2);
+        CompletableFuture<List<String>> future = service.hashAllAsync(List.of("a", "b", "c"));
+        // 线程都被占着，调用线程没有自己算
+        assertFalse(future.isDone());
+
+        release.countDown();
+        List<String> hashes = future.get(30, TimeUnit.SECONDS);
+        assertEquals(3, hashes.size());
+        assertTrue(BCrypt.checkpw("a", hashes.get(0)));
+        assertTrue(BCrypt.checkpw("b", hashes.get(1)));
+        assertTrue(BCrypt.checkpw("c", hashes.get(2)));
+    }
+
+    @Test
+    void singlePasswordIsHashedOnPool() throws Exception {
+        PasswordService service = service(1, 16);
+        occupyThreads(1);
+        CompletableFuture<List<String>> future = service.hashAllAsync(List.of("a"));
+        assertFalse(future.isDone());
+
+        release.countDown();
+        assertTrue(BCrypt.checkpw("a", future.get(30, TimeUnit.SECONDS).get(0)));
+    }
+
+    @Test
+    void emptyInputCompletesImmediately() {
+        PasswordService service = service(1, 1);
+        assertEquals(List.of(), service.hashAllAsync(List.of()).join());
+    }
+
+    @Test
+    void fullQueueFailsWithBusy() {
+        PasswordService service = service(2, 1);
+        occupyThreads(3);
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> service.hashAllAsync(List.of("a", "b")).get());
+        assertInstanceOf(ServiceBusyException.class, e.getCause());
+    }
+
+    @Test
+    void onlineHashDoesNotWaitForBackgroundBatch() throws Exception {
+        PasswordService service = service(2, 16);
+        CompletableFuture<List<String>> background = CompletableFuture.supplyAsync(() -> {
+            try {
+                return service.hashInBackground(Collections.nCopies(8, "a"));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (executor.getActiveCount() == 0) {
+            Thread.sleep(1);
+        }
+
+        // 后台只占一个线程，在线请求马上拿到另一个，不用排在整批后面
+        assertTrue(BCrypt.checkpw("b", service.hashAsync("b").get(30, TimeUnit.SECONDS)));
+        assertFalse(background.isDone());
+        assertEquals(8, background.get(30, TimeUnit.SECONDS).size());
+    }
+
+    private PasswordService service(int threads, int queueCapacity) {
+        executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity));
+        return new PasswordService(executor, new SimpleMeterRegistry());
+    }
+
+    /**
+     * 提交tasks个阻塞到release的任务，先占满线程，多出的进队列
+     */
+    private void occupyThreads(int tasks) {
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.sunsc.odokioa.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.sunsc.odokioa.config.AuthProperties;
+import com.sunsc.odokioa.config.PermissionCacheProperties;
+import com.sunsc.odokioa.dao.RolePermissionMapper;
+import com.sunsc.odokioa.dao.UserRoleMapper;
+import com.sunsc.odokioa.domain.RolePermission;
+import com.sunsc.odokioa.domain.UserRole;
+import com.sunsc.odokioa.enums.Permission;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 是否拦截由 odoki.auth.enforce 决定，没有开启时只计数
+ */
+class PermissionServiceTests {
+
+    private static final String ROLE_ID = "role";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeAll
+    static void initTableInfo() {
+        // LambdaQueryWrapper按实体的TableInfo解析列名
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), UserRole.class);
+    }
+
+    @Test
+    void notEnforcedAllowsAndCounts() {
+        PermissionService permissionService = permissionService(false);
+        assertTrue(permissionService.isAllowed("reader", Permission.USER_READ));
+        assertTrue(permissionService.isAllowed("reader", Permission.USER_WRITE));
+        assertTrue(permissionService.isAllowed(null, Permission.USER_READ));
+        assertEquals(1, denied(Permission.USER_WRITE, false));
+        assertEquals(1, denied(Permission.USER_READ, false));
+    }
+
+    @Test
+    void enforcedDeniesWithoutPermission() {
+        PermissionService permissionService = permissionService(true);
+        assertTrue(permissionService.isAllowed("reader", Permission.USER_READ));
+        assertFalse(permissionService.isAllowed("reader", Permission.USER_WRITE));
+        assertFalse(permissionService.isAllowed(null, Permission.USER_READ));
+        assertEquals(1, denied(Permission.USER_WRITE, true));
+    }
+
+    private double denied(Permission permission, boolean enforced) {
+        return meterRegistry.counter("permissions.denied", "permission", permission.name(),
+                "enforced", String.valueOf(enforced)).count();
+    }
+
+    /**
+     * 用户reader只有一个角色，该角色只有USER_READ
+     */
+    private PermissionService permissionService(boolean enforce) {
+        UserRole userRole = new UserRole();
+        userRole.setUserId("reader");
+        userRole.setRoleId(ROLE_ID);
+        RolePermission rolePermission = new RolePermission();
+        rolePermission.setRoleId(ROLE_ID);
+        rolePermission.setPermission(Permission.USER_READ.name());
+        UserRoleMapper userRoleMapper = mapper(UserRoleMapper.class, "selectList", List.of(userRole));
+        RolePermissionMapper rolePermissionMapper = mapper(RolePermissionMapper.class, "selectActive",
+                List.of(rolePermission));
+
+        AuthProperties authProperties = new AuthProperties();
+        authProperties.setEnforce(enforce);
+        return new PermissionService(userRoleMapper, rolePermissionMapper, new PermissionCacheProperties(),
+                authProperties, meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T mapper(Class<T> type, String method, Object result) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, m, args) -> {
+            if (m.getName().equals(method)) {
+                return result;
+            }
+            throw new UnsupportedOperationException(m.getName());
+        });
+    }
+}
@@ -0,0 +1,98 @@
+package com.sunsc.odokioa.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sunsc.odokioa.config.ShardingProperties;
+import com.sunsc.odokioa.dao.UserMapper;
+import com.sunsc.odokioa.domain.User;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 建索引时流式读取的行与并发写入交错，mapper在两行之间插入一次写操作
+ */
+class UserSearchIndexTests {
+
+    private UserSearchIndex index;
+
+    @Test
+    void rowRemovedDuringLoadStaysRemoved() {
+        // 读到"李小明"之后、交给索引之前，这个用户被删除了
+        index = loading(List.of(user("1", "李小明", "13800000001"), user("2", "王小红", "13800000002")),
+                () -> index.remove("1"));
+        index.load();
+
+        assertTrue(index.search("小明", 10).isEmpty());
+        assertEquals(List.of("2"), ids(index.search("小红", 10)));
+    }
+
+    @Test
+    void staleRowDoesNotOverwriteUpdate() {
+        index = loading(List.of(user("1", "李小明", "13800000001")),
+                () -> index.put(user("1", "李大明", "13800000001")));
+        index.load();
+
+        assertTrue(index.search("小明", 10).isEmpty());
+        assertEquals(List.of("1"), ids(index.search("大明", 10)));
+    }
+
+    @Test
+    void writesAfterLoadAreApplied() {
+        index = loading(List.of(user("1", "李小明", "13800000001")), () -> {
+        });
+        index.load();
+        index.remove("1");
+        index.put(user("1", "李小明", "13800000001"));
+
+        assertEquals(List.of("1"), ids(index.search("1380", 10)));
+    }
+
+    /**
+     * streamSearchFields逐行回调rows，每行读出之后、回调之前执行一次beforeFirstRow
+     */
+    private static UserSearchIndex loading(List<User> rows, Runnable beforeFirstRow) {
+        UserMapper mapper = (UserMapper) Proxy.newProxyInstance(UserMapper.class.getClassLoader(),
+                new Class<?>[]{UserMapper.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("streamSearchFields")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    @SuppressWarnings("unchecked")
+                    ResultHandler<User> handler = (ResultHandler<User>) args[0];
+                    boolean first = true;
+                    for (User row : rows) {
+                        // 模拟读出的是写入之前的旧行
+                        User read = user(row.getId(), row.getName(), row.getMobile());
+                        if (first) {
+                            beforeFirstRow.run();
+                            first = false;
+                        }
+                        DefaultResultContext<User> context = new DefaultResultContext<>();
+                        context.nextResultObject(read);
+                        handler.handleResult(context);
+                    }
+                    return null;
+                });
+        UserShards shards = new UserShards(new ShardingProperties(),
+                new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>()));
+        return new UserSearchIndex(mapper, shards);
+    }
+
+    private static User user(String id, String name, String mobile) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        user.setMobile(mobile);
+        return user;
+    }
+
+    private static List<String> ids(List<User> users) {
+        return users.stream().map(User::getId).toList();
+    }
+}
@@ -0,0 +1,131 @@
+package com.sunsc.odokioa.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 耗时都按传入的值计算，不依赖真实时间
+ */
+class AdaptiveLimiterTests {
+
+    private static final long FAST = 1_000_000L;
+
+    @Test
+    void rejectsAtLimitWithoutQueueing() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(3, 1, 10, 2.0, 0.5);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(3, limiter.getInflight());
+
+        limiter.release(FAST, false);
+        assertEquals(2, limiter.getInflight());
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void growsByOneWhenLimitIsUsed() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(4, 1, 10, 2.0, 0.5);
+        acquire(limiter, 4);
+        limiter.release(FAST, false);
+        assertEquals(5, limiter.getLimit());
+        // 释放前还有3个在执行，3*2 >= 5
+        limiter.release(FAST, false);
+        assertEquals(6, limiter.getLimit());
+    }
+
+    @Test
+    void doesNotGrowWhenMostlyIdle() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(10, 1, 100, 2.0, 0.5);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST, false);
+        }
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void growthStopsAtMaxLimit() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(4, 1, 6, 2.0, 0.5);
+        for (int round = 0; round < 10; round++) {
+            int limit = limiter.getLimit();
+            acquire(limiter, limit);
+            for (int i = 0; i < limit; i++) {
+                limiter.release(FAST, false);
+            }
+        }
+        assertEquals(6, limiter.getLimit());
+    }
+
+    @Test
+    void backsOffMultiplicativelyWhenOverloaded() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(16, 1, 100, 2.0, 0.5);
+        assertTrue(limiter.tryAcquire());
+        limiter.release(FAST, true);
+        assertEquals(8, limiter.getLimit());
+        assertTrue(limiter.tryAcquire());
+        limiter.release(FAST, true);
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void backsOffWhenSlowerThanBaseline() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(16, 1, 100, 2.0, 0.5);
+        // 第一个样本定下长期平均耗时
+        assertTrue(limiter.tryAcquire());
+        limiter.release(FAST, false);
+        assertEquals(16, limiter.getLimit());
+
+        assertTrue(limiter.tryAcquire());
+        limiter.release(FAST * 2, false);
+        assertEquals(16, limiter.getLimit());
+
+        assertTrue(limiter.tryAcquire());
+        limiter.release(FAST * 3, false);
+        assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    void backoffStopsAtMinLimit() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(16, 3, 100, 2.0, 0.5);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST, true);
+        }
+        assertEquals(3, limiter.getLimit());
+        acquire(limiter, 3);
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    void recoversAfterOverload() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(8, 1, 100, 2.0, 0.5);
+        assertTrue(limiter.tryAcquire());
+        limiter.release(FAST, true);
+        assertEquals(4, limiter.getLimit());
+
+        acquire(limiter, 4);
+        for (int i = 0; i < 4; i++) {
+            limiter.release(FAST, false);
+        }
+        // 释放前在执行的是4、3、2、1个，只有前两次满足 inflight*2 >= limit
+        assertEquals(6, limiter.getLimit());
+    }
+
+    @Test
+    void initialLimitIsClamped() {
+        assertEquals(5, new AdaptiveLimiter(50, 1, 5, 2.0, 0.5).getLimit());
+        assertEquals(2, new AdaptiveLimiter(0, 2, 5, 2.0, 0.5).getLimit());
+        assertEquals(1, new AdaptiveLimiter(0, 0, 0, 2.0, 0.5).getLimit());
+    }
+
+    private static void acquire(AdaptiveLimiter limiter, int count) {
+        for (int i = 0; i < count; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.sunsc.odokioa.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CsvReaderTests {
+
+    @Test
+    void plainRecords() throws IOException {
+        assertEquals(List.of(List.of("name", "mobile"), List.of("alice", "138"), List.of("bob", "139")),
+                readAll("name,mobile\nalice,138\nbob,139\n"));
+    }
+
+    @Test
+    void lastRecordWithoutNewline() throws IOException {
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d")), readAll("a,b\nc,d"));
+    }
+
+    @Test
+    void emptyFields() throws IOException {
+        assertEquals(List.of(List.of("", "b", ""), List.of("")), readAll(",b,\n\n"));
+    }
+
+    @Test
+    void quotedFieldsKeepCommasAndNewlines() throws IOException {
+        assertEquals(List.of(List.of("a,b", "line1\nline2", "c")), readAll("\"a,b\",\"line1\nline2\",c\n"));
+    }
+
+    @Test
+    void doubledQuoteIsEscapedQuote() throws IOException {
+        assertEquals(List.of(List.of("say \"hi\"", "\"")), readAll("\"say \"\"hi\"\"\",\"\"\"\"\n"));
+    }
+
+    @Test
+    void quoteInsideUnquotedFieldIsLiteral() throws IOException {
+        assertEquals(List.of(List.of("5\" screen", "x")), readAll("5\" screen,x\n"));
+    }
+
+    @Test
+    void leadingBomIsSkipped() throws IOException {
+        CsvReader reader = reader("\uFEFFname,mobile\n\uFEFFx,y\n");
+        assertEquals(List.of("name", "mobile"), reader.next());
+        // 只有文件开头的BOM会被忽略
+        assertEquals(List.of("\uFEFFx", "y"), reader.next());
+    }
+
+    @Test
+    void crlfAndBareCrEndRecords() throws IOException {
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d"), List.of("e")), readAll("a,b\r\nc,d\re\r\n"));
+    }
+
+    @Test
+    void recordLineCountsNewlinesInsideQuotes() throws IOException {
+        CsvReader reader = reader("h\n\"x\r\ny\"\nz\r\nw");
+        reader.next();
+        assertEquals(1, reader.getRecordLine());
+        assertEquals(List.of("x\r\ny"), reader.next());
+        assertEquals(2, reader.getRecordLine());
+        reader.next();
+        assertEquals(4, reader.getRecordLine());
+        reader.next();
+        assertEquals(5, reader.getRecordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void emptyInput() throws IOException {
+        assertNull(reader("").next());
+        assertNull(reader("\uFEFF").next());
+    }
+
+    @Test
+    void unterminatedQuoteFails() {
+        CsvFormatException e = assertThrows(CsvFormatException.class, () -> readAll("a\n\"open,b\nc\n"));
+        assertTrue(e.getMessage().contains("line 2"), e.getMessage());
+    }
+
+    @Test
+    void recordAtLimitIsAccepted() throws IOException {
+        // 上限按记录计数，包括结尾的换行
+        String field = "x".repeat(CsvReader.MAX_RECORD_CHARS - 1);
+        assertEquals(List.of(List.of(field)), readAll(field + "\n"));
+    }
+
+    @Test
+    void oversizedRecordFails() {
+        String field = "x".repeat(CsvReader.MAX_RECORD_CHARS + 1);
+        CsvFormatException e = assertThrows(CsvFormatException.class, () -> readAll("h\n" + field + "\n"));
+        assertTrue(e.getMessage().contains("line 2"), e.getMessage());
+    }
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        CsvReader reader = reader(csv);
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+
+    private static CsvReader reader(String csv) {
+        return new CsvReader(new StringReader(csv));
+    }
+}
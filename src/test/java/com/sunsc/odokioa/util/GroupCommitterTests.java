@@ -0,0 +1,174 @@
+package com.sunsc.odokioa.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sunsc.odokioa.common.ServiceBusyException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * flusher只把每批的内容记下来，不碰数据库
+ */
+class GroupCommitterTests {
+
+    private final List<List<String>> flushed = Collections.synchronizedList(new ArrayList<>());
+
+    private GroupCommitter<String> committer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        committer.close();
+    }
+
+    @Test
+    void writesWithinWindowShareOneBatch() throws Exception {
+        // 第一条到达后再等500ms才提交，后面几条都在窗口内
+        committer = recording(Duration.ofMillis(500), 100);
+        List<CompletableFuture<String>> futures = submitAll("a", "b", "c", "d");
+
+        assertEquals(List.of("a", "b", "c", "d"), join(futures));
+        assertEquals(List.of(List.of("a", "b", "c", "d")), flushed);
+    }
+
+    @Test
+    void batchIsCutAtMaxBatchSize() throws Exception {
+        committer = recording(Duration.ofMillis(200), 3);
+        List<CompletableFuture<String>> futures = submitAll("1", "2", "3", "4", "5", "6", "7");
+
+        assertEquals(List.of("1", "2", "3", "4", "5", "6", "7"), join(futures));
+        List<String> all = new ArrayList<>();
+        for (List<String> batch : flushed) {
+            assertTrue(batch.size() <= 3, "batch too large: " + batch);
+            all.addAll(batch);
+        }
+        assertEquals(List.of("1", "2", "3", "4", "5", "6", "7"), all);
+        assertEquals(List.of("1", "2", "3"), flushed.get(0));
+    }
+
+    @Test
+    void failedBatchIsRetriedRowByRow() throws Exception {
+        committer = new GroupCommitter<>("test", Duration.ofMillis(500), 100, 100, items -> {
+            flushed.add(List.copyOf(items));
+            if (items.contains("bad")) {
+                throw new IllegalStateException("bad row");
+            }
+        });
+        CompletableFuture<String> a = committer.submit("a");
+        CompletableFuture<String> bad = committer.submit("bad");
+        CompletableFuture<String> c = committer.submit("c");
+
+        assertEquals("a", a.get(5, TimeUnit.SECONDS));
+        assertEquals("c", c.get(5, TimeUnit.SECONDS));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals(List.of(List.of("a", "bad", "c"), List.of("a"), List.of("bad"), List.of("c")), flushed);
+    }
+
+    @Test
+    void failureIsMappedBeforeReachingCaller() throws Exception {
+        committer = new GroupCommitter<>("test", Duration.ofMillis(1), 100, 100, items -> {
+            throw new IllegalStateException("Duplicate entry 'x' for key 'user.PRIMARY'");
+        }, item -> {
+        }, e -> new IllegalStateException("insert failed"));
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> committer.submit("x").get(5, TimeUnit.SECONDS));
+        assertEquals("insert failed", e.getCause().getMessage());
+    }
+
+    @Test
+    void afterCommitFailureIsNotRetried() throws Exception {
+        List<String> committed = Collections.synchronizedList(new ArrayList<>());
+        committer = new GroupCommitter<>("test", Duration.ofMillis(500), 100, 100,
+                items -> flushed.add(List.copyOf(items)), item -> {
+                    committed.add(item);
+                    if (item.equals("b")) {
+                        throw new IllegalStateException("index update failed");
+                    }
+                }, Function.identity());
+        List<CompletableFuture<String>> futures = submitAll("a", "b", "c");
+
+        // 写入已经提交，回调失败不影响结果，也不会逐条重写一遍
+        assertEquals(List.of("a", "b", "c"), join(futures));
+        assertEquals(List.of(List.of("a", "b", "c")), flushed);
+        assertEquals(List.of("a", "b", "c"), committed);
+    }
+
+    @Test
+    void closeFlushesQueuedWritesAndRejectsNewOnes() throws Exception {
+        committer = recording(Duration.ofMillis(50), 100);
+        List<CompletableFuture<String>> futures = submitAll("a", "b", "c");
+        committer.close();
+
+        assertEquals(List.of("a", "b", "c"), join(futures));
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> committer.submit("d").get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ServiceBusyException.class, e.getCause());
+    }
+
+    @Test
+    void everyWriteCompletesWhenClosedConcurrently() throws Exception {
+        committer = recording(Duration.ofMillis(1), 10);
+        List<CompletableFuture<String>> futures = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> submitters = new ArrayList<>();
+        CountDownLatch started = new CountDownLatch(4);
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < 10_000; i++) {
+                    futures.add(committer.submit("x"));
+                }
+            });
+            thread.start();
+            submitters.add(thread);
+        }
+        started.await();
+        committer.close();
+        for (Thread thread : submitters) {
+            thread.join();
+        }
+
+        // 每个写入要么写入成功，要么因为已关闭或队列满而失败，不会一直挂着
+        for (CompletableFuture<String> future : futures) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                assertInstanceOf(ServiceBusyException.class, e.getCause());
+            }
+        }
+    }
+
+    private GroupCommitter<String> recording(Duration window, int maxBatchSize) {
+        Consumer<List<String>> flusher = items -> flushed.add(List.copyOf(items));
+        return new GroupCommitter<>("test", window, maxBatchSize, 100_000, flusher);
+    }
+
+    private List<CompletableFuture<String>> submitAll(String... items) {
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (String item : items) {
+            futures.add(committer.submit(item));
+        }
+        return futures;
+    }
+
+    private static List<String> join(List<CompletableFuture<String>> futures) throws Exception {
+        List<String> results = new ArrayList<>();
+        for (CompletableFuture<String> future : futures) {
+            results.add(future.get(5, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,77 @@
+package com.sunsc.odokioa.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 时间都由测试传入，不依赖真实时钟
+ */
+class TokenBucketTests {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private static final long T0 = 1_000_000_000_000L;
+
+    @Test
+    void fullBucketAllowsBurst() {
+        TokenBucket bucket = new TokenBucket(10, 5, T0);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(bucket.tryTake(T0));
+        }
+        assertFalse(bucket.tryTake(T0));
+    }
+
+    @Test
+    void refillsAtRate() {
+        TokenBucket bucket = new TokenBucket(10, 1, T0);
+        assertTrue(bucket.tryTake(T0));
+        assertFalse(bucket.tryTake(T0 + 50 * MILLIS));
+        // 10个每秒，100ms补一个；不足一个的部分留到下次
+        assertTrue(bucket.tryTake(T0 + 100 * MILLIS));
+        assertFalse(bucket.tryTake(T0 + 150 * MILLIS));
+        assertTrue(bucket.tryTake(T0 + 200 * MILLIS));
+    }
+
+    @Test
+    void refillStopsAtCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 3, T0);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(bucket.tryTake(T0));
+        }
+        long later = T0 + 60_000 * MILLIS;
+        for (int i = 0; i < 3; i++) {
+            assertTrue(bucket.tryTake(later));
+        }
+        assertFalse(bucket.tryTake(later));
+    }
+
+    @Test
+    void sustainedRateMatchesConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(100, 10, T0);
+        int taken = 0;
+        // 1秒内每毫秒尝试一次：容量10加上补充的100个
+        for (long t = 0; t <= 1000; t++) {
+            if (bucket.tryTake(T0 + t * MILLIS)) {
+                taken++;
+            }
+        }
+        assertTrue(taken >= 109 && taken <= 111, "taken " + taken);
+    }
+
+    @Test
+    void clockGoingBackwardsAddsNothing() {
+        TokenBucket bucket = new TokenBucket(10, 1, T0);
+        assertTrue(bucket.tryTake(T0));
+        assertFalse(bucket.tryTake(T0 - 1_000 * MILLIS));
+        assertTrue(bucket.tryTake(T0 + 100 * MILLIS));
+    }
+
+    @Test
+    void capacityIsAtLeastOne() {
+        TokenBucket bucket = new TokenBucket(1, 0, T0);
+        assertTrue(bucket.tryTake(T0));
+        assertFalse(bucket.tryTake(T0));
+    }
+}